@@ -2,17 +2,73 @@ package com.skillsharingcommunityplatform;
 
 // SkillSharingApp.java
 
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Task;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import javax.crypto.SecretKeyFactory;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import javax.crypto.spec.PBEKeySpec;
+import javafx.util.Duration;
 import javafx.util.StringConverter;
 
 // CSS for modernistic look
@@ -84,9 +140,12 @@ class ModernisticTheme {
 // ==================================================================================================================
 // New Classes for modernistic look and features
 // ==================================================================================================================
+// A skill's quiz. Each quiz a provider saves becomes the next version for its skill; version 0 means not yet
+// added to QuizManager, which assigns the number.
 class Quiz {
     private String skillName;
     private List<Question> questions;
+    private int version;
 
     public Quiz(String skillName) {
         this.skillName = skillName;
@@ -96,20 +155,32 @@ class Quiz {
     public String getSkillName() { return skillName; }
     public List<Question> getQuestions() { return questions; }
     public void addQuestion(Question q) { questions.add(q); }
+    public int getVersion() { return version; }
+    void setVersion(int version) { this.version = version; }
 
+    // Line layout: skillName|version|question|question... Lines written before versions have no version
+    // field; a field without ';' can't be a question, so that is how the version is told apart.
     public static Quiz fromString(String line) {
-        String[] parts = line.split("\\|");
-        String skillName = parts[0];
-        Quiz quiz = new Quiz(skillName);
-        for (int i = 1; i < parts.length; i++) {
-            quiz.addQuestion(Question.fromString(parts[i]));
+        FieldSplitter parts = new FieldSplitter('|');
+        int count = parts.split(line);
+        Quiz quiz = new Quiz(parts.get(0));
+        int first = 1;
+        if (count > 1 && !parts.isEmpty(1) && parts.get(1).indexOf(';') < 0) {
+            quiz.setVersion(parts.getInt(1));
+            first = 2;
+        }
+        for (int i = first; i < count; i++) {
+            if (!parts.isEmpty(i)) {
+                quiz.addQuestion(Question.fromString(parts.get(i)));
+            }
         }
         return quiz;
     }
 
     @Override
     public String toString() {
-        return skillName + "|" + questions.stream().map(Question::toString).collect(Collectors.joining("|"));
+        String header = version > 0 ? skillName + "|" + version : skillName;
+        return header + "|" + questions.stream().map(Question::toString).collect(Collectors.joining("|"));
     }
 }
 
@@ -129,11 +200,14 @@ class Question {
     public int getCorrectAnswerIndex() { return correctAnswerIndex; }
 
     public static Question fromString(String s) {
-        String[] parts = s.split(";");
-        String text = parts[0];
-        int correctIndex = Integer.parseInt(parts[parts.length - 1]);
-        List<String> options = new ArrayList<>(Arrays.asList(parts).subList(1, parts.length - 1));
-        return new Question(text, options, correctIndex);
+        FieldSplitter parts = new FieldSplitter(';');
+        int count = parts.split(s);
+        int correctIndex = parts.getInt(count - 1);
+        List<String> options = new ArrayList<>(Math.max(0, count - 2));
+        for (int i = 1; i < count - 1; i++) {
+            options.add(parts.get(i));
+        }
+        return new Question(parts.get(0), options, correctIndex);
     }
 
     @Override
@@ -142,15 +216,92 @@ class Question {
     }
 }
 
-class QuizManager {
-    private static final List<Quiz> allQuizzes = new ArrayList<>();
+// Fixed array of locks selected by key hash. Writers to the same skill serialize on one stripe while writers to
+// different skills rarely contend; lockAll() takes every stripe in index order for whole-manager operations.
+class StripedLocks {
+    private final ReentrantLock[] locks;
+
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public ReentrantLock forKey(Object key) {
+        int hash = key.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (locks.length - 1)];
+    }
+
+    public void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    public void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+}
 
-    public static void addQuiz(Quiz quiz) {
-        allQuizzes.add(quiz);
+// Every version of every skill's quiz. Lookups by skill name return the latest version; earlier ones are kept
+// for grading and regrading the attempts taken on them.
+class QuizManager {
+    private static final Queue<Quiz> allQuizzes = new ConcurrentLinkedQueue<>();
+    private static final Map<String, NavigableMap<Integer, Quiz>> quizzesBySkillName = new ConcurrentHashMap<>();
+    private static final Map<String, NavigableMap<Integer, CompiledQuiz>> compiledBySkillName = new ConcurrentHashMap<>();
+    private static final StripedLocks locks = new StripedLocks(16);
+    private static final PlatformLog log = PlatformLog.named("quizzes");
+    private static final LatencyHistogram addTimer = PlatformMetrics.histogram("quizzes.add");
+
+    // A quiz without a version becomes the skill's next version. One that already has a version (loaded or
+    // replayed) keeps it, and is ignored if that version is already stored.
+    public static boolean addQuiz(Quiz quiz) {
+        long start = System.nanoTime();
+        String key = SessionManager.normalizeSkillName(quiz.getSkillName());
+        ReentrantLock lock = locks.forKey(key);
+        lock.lock();
+        try {
+            NavigableMap<Integer, Quiz> versions = quizzesBySkillName.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>());
+            if (quiz.getVersion() <= 0) {
+                quiz.setVersion(versions.isEmpty() ? 1 : versions.lastKey() + 1);
+            } else if (versions.containsKey(quiz.getVersion())) {
+                log.debug(() -> "Quiz for " + quiz.getSkillName() + " version " + quiz.getVersion() + " already exists.");
+                addTimer.recordSince(start);
+                return false;
+            }
+            allQuizzes.add(quiz);
+            versions.put(quiz.getVersion(), quiz);
+            compiledBySkillName.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>()).put(quiz.getVersion(), CompiledQuiz.compile(quiz));
+        } finally {
+            lock.unlock();
+        }
+        DataDomain.QUIZZES.markChanged();
+        PlatformJournal.append(JournalRecord.Type.ADD_QUIZ, quiz.toString());
+        log.debug(() -> "Quiz added: " + quiz.getSkillName() + " version " + quiz.getVersion());
+        addTimer.recordSince(start);
+        return true;
     }
 
     public static Optional<Quiz> getQuizBySkillName(String skillName) {
-        return allQuizzes.stream().filter(q -> q.getSkillName().equalsIgnoreCase(skillName)).findFirst();
+        NavigableMap<Integer, Quiz> versions = quizzesBySkillName.get(SessionManager.normalizeSkillName(skillName));
+        Map.Entry<Integer, Quiz> latest = versions == null ? null : versions.lastEntry();
+        return latest == null ? Optional.empty() : Optional.of(latest.getValue());
+    }
+
+    // The latest version, compiled for grading when it was added.
+    public static Optional<CompiledQuiz> getCompiledQuiz(String skillName) {
+        NavigableMap<Integer, CompiledQuiz> versions = compiledBySkillName.get(SessionManager.normalizeSkillName(skillName));
+        Map.Entry<Integer, CompiledQuiz> latest = versions == null ? null : versions.lastEntry();
+        return latest == null ? Optional.empty() : Optional.of(latest.getValue());
+    }
+
+    public static Optional<CompiledQuiz> getCompiledQuiz(String skillName, int version) {
+        NavigableMap<Integer, CompiledQuiz> versions = compiledBySkillName.get(SessionManager.normalizeSkillName(skillName));
+        return versions == null ? Optional.empty() : Optional.ofNullable(versions.get(version));
     }
 
     public static List<Quiz> getAllQuizzes() {
@@ -158,7 +309,498 @@ class QuizManager {
     }
 
     public static void clearAllQuizzes() {
-        allQuizzes.clear();
+        locks.lockAll();
+        try {
+            allQuizzes.clear();
+            quizzesBySkillName.clear();
+            compiledBySkillName.clear();
+        } finally {
+            locks.unlockAll();
+        }
+        DataDomain.QUIZZES.markChanged();
+    }
+}
+// A quiz compiled for grading: question texts and options in plain arrays, with option strings that repeat
+// within the quiz ("True", "None of the above") held once, and the answer key as one byte per question.
+// Instances are immutable; withCorrectAnswer() makes a corrected copy sharing the texts.
+// An answer vector holds the chosen option index per question, or UNANSWERED.
+final class CompiledQuiz {
+    static final byte UNANSWERED = -1;
+    // Stored for a key that names no option, so no answer matches it.
+    private static final byte NO_KEY = Byte.MIN_VALUE;
+
+    private final String skillName;
+    private final int version;
+    private final String[] questionTexts;
+    private final String[][] options;
+    private final byte[] answerKey;
+
+    private CompiledQuiz(String skillName, int version, String[] questionTexts, String[][] options, byte[] answerKey) {
+        this.skillName = skillName;
+        this.version = version;
+        this.questionTexts = questionTexts;
+        this.options = options;
+        this.answerKey = answerKey;
+    }
+
+    public static CompiledQuiz compile(Quiz quiz) {
+        List<Question> questions = quiz.getQuestions();
+        int count = questions.size();
+        String[] questionTexts = new String[count];
+        String[][] options = new String[count][];
+        byte[] answerKey = new byte[count];
+        // Scoped to this compile, so nothing outlives the quiz; a shared pool would keep every option of every
+        // version and practice draw ever compiled.
+        Map<String, String> optionPool = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Question question = questions.get(i);
+            List<String> questionOptions = question.getOptions();
+            if (questionOptions.size() > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Question " + (i + 1) + " of the " + quiz.getSkillName()
+                        + " quiz has " + questionOptions.size() + " options; at most " + Byte.MAX_VALUE + " are supported");
+            }
+            questionTexts[i] = question.getQuestionText();
+            options[i] = new String[questionOptions.size()];
+            for (int j = 0; j < options[i].length; j++) {
+                options[i][j] = optionPool.computeIfAbsent(questionOptions.get(j), option -> option);
+            }
+            answerKey[i] = keyFor(question.getCorrectAnswerIndex(), options[i].length);
+        }
+        return new CompiledQuiz(quiz.getSkillName(), quiz.getVersion(), questionTexts, options, answerKey);
+    }
+
+    private static byte keyFor(int correctIndex, int optionCount) {
+        return correctIndex >= 0 && correctIndex < optionCount ? (byte) correctIndex : NO_KEY;
+    }
+
+    public String getSkillName() { return skillName; }
+    public int getVersion() { return version; }
+    public int getQuestionCount() { return questionTexts.length; }
+    public String getQuestionText(int question) { return questionTexts[question]; }
+    public List<String> getOptions(int question) { return Collections.unmodifiableList(Arrays.asList(options[question])); }
+    public int getCorrectAnswer(int question) { return answerKey[question] == NO_KEY ? -1 : answerKey[question]; }
+
+    // An answer vector for this quiz with every question unanswered.
+    public byte[] newAnswers() {
+        byte[] answers = new byte[questionTexts.length];
+        Arrays.fill(answers, UNANSWERED);
+        return answers;
+    }
+
+    // Answers past the end of the vector count as unanswered, and extra ones are ignored.
+    public int countCorrect(byte[] answers) {
+        int length = Math.min(answers.length, answerKey.length);
+        int correct = 0;
+        for (int i = 0; i < length; i++) {
+            if (answers[i] == answerKey[i]) correct++;
+        }
+        return correct;
+    }
+
+    // Percentage of questions answered correctly, rounded down.
+    public int score(byte[] answers) {
+        return answerKey.length == 0 ? 0 : countCorrect(answers) * 100 / answerKey.length;
+    }
+
+    public CompiledQuiz withCorrectAnswer(int question, int option) {
+        byte[] fixedKey = answerKey.clone();
+        fixedKey[question] = keyFor(option, options[question].length);
+        return new CompiledQuiz(skillName, version, questionTexts, options, fixedKey);
+    }
+
+    // Whether answers to this quiz line up with the other's questions: the same number of questions, each with
+    // the same number of options. A corrected version has the same shape; a rewritten one usually doesn't.
+    public boolean hasSameShape(CompiledQuiz other) {
+        if (other.questionTexts.length != questionTexts.length) return false;
+        for (int i = 0; i < options.length; i++) {
+            if (other.options[i].length != options[i].length) return false;
+        }
+        return true;
+    }
+}
+
+// Grades many answer vectors against one compiled quiz, e.g. a whole cohort again after a provider fixes an
+// answer key. Large batches are scored in parallel on the common fork/join pool; recording the results is
+// left to the caller, on the platform thread like any other change.
+class QuizEngine {
+    // Below this many submissions the fork/join hand-off costs more than scoring them in place.
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    private static final LatencyHistogram batchTimer = PlatformMetrics.histogram("quiz.grade.batch");
+
+    public static int[] gradeAll(CompiledQuiz quiz, List<byte[]> submissions, boolean parallel) {
+        long start = System.nanoTime();
+        int[] scores = new int[submissions.size()];
+        if (parallel && scores.length >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSetAll(scores, i -> quiz.score(submissions.get(i)));
+        } else {
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = quiz.score(submissions.get(i));
+            }
+        }
+        batchTimer.recordSince(start);
+        return scores;
+    }
+
+    // Scores each seeker's answers and stores the new marks as their results for the quiz's skill. Must run
+    // on the platform thread.
+    public static void regrade(CompiledQuiz quiz, Map<String, byte[]> answersBySeeker, boolean parallel) {
+        List<String> seekerIds = new ArrayList<>(answersBySeeker.keySet());
+        List<byte[]> submissions = new ArrayList<>(seekerIds.size());
+        for (String seekerId : seekerIds) {
+            submissions.add(answersBySeeker.get(seekerId));
+        }
+        int[] scores = gradeAll(quiz, submissions, parallel);
+        for (int i = 0; i < scores.length; i++) {
+            ResultManager.addResult(new Result(seekerIds.get(i), quiz.getSkillName(), scores[i]));
+        }
+    }
+}
+
+// One seeker's answers to one version of a skill's quiz, or to a quiz generated from its question bank, kept so
+// the attempt can be graded again. Attempts at generated quizzes have version 0 and keep the draw the quiz
+// came from. The answer vector is a byte per question (see CompiledQuiz) and is not copied, so it must not be
+// changed once the attempt exists. In text form it is Base64, e.g. "AAIBAw" for four questions.
+class QuizAttempt {
+    private final String seekerId;
+    private final String skillName;
+    private final int quizVersion;
+    private final byte[] answers;
+    private final QuizDraw draw;
+
+    public QuizAttempt(String seekerId, String skillName, int quizVersion, byte[] answers) {
+        this(seekerId, skillName, quizVersion, answers, null);
+    }
+
+    public QuizAttempt(String seekerId, String skillName, int quizVersion, byte[] answers, QuizDraw draw) {
+        this.seekerId = seekerId;
+        this.skillName = skillName;
+        this.quizVersion = quizVersion;
+        this.answers = answers;
+        this.draw = draw;
+    }
+
+    public String getSeekerId() { return seekerId; }
+    public String getSkillName() { return skillName; }
+    public int getQuizVersion() { return quizVersion; }
+    public byte[] getAnswers() { return answers; }
+    // Null unless the quiz was generated from the question bank.
+    public QuizDraw getDraw() { return draw; }
+
+    public static String encodeAnswers(byte[] answers) {
+        return Base64.getEncoder().withoutPadding().encodeToString(answers);
+    }
+
+    public static byte[] decodeAnswers(String encoded) {
+        return Base64.getDecoder().decode(encoded);
+    }
+}
+
+// Every quiz attempt, plus each seeker's latest attempt per skill, which is the one their result reflects.
+class QuizAttemptManager {
+    private static final Queue<QuizAttempt> allAttempts = new ConcurrentLinkedQueue<>();
+    private static final Map<String, Map<String, QuizAttempt>> latestBySkill = new ConcurrentHashMap<>();
+    private static final StripedLocks locks = new StripedLocks(16);
+    private static final LatencyHistogram addTimer = PlatformMetrics.histogram("attempts.add");
+
+    public static void addAttempt(QuizAttempt attempt) {
+        long start = System.nanoTime();
+        String key = SessionManager.normalizeSkillName(attempt.getSkillName());
+        ReentrantLock lock = locks.forKey(key);
+        lock.lock();
+        try {
+            allAttempts.add(attempt);
+            latestBySkill.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(attempt.getSeekerId(), attempt);
+        } finally {
+            lock.unlock();
+        }
+        DataDomain.QUIZ_ATTEMPTS.markChanged();
+        PlatformJournal.append(JournalRecord.Type.ADD_QUIZ_ATTEMPT, attempt.getSeekerId(), attempt.getSkillName(),
+                String.valueOf(attempt.getQuizVersion()), QuizAttempt.encodeAnswers(attempt.getAnswers()),
+                attempt.getDraw() == null ? "" : attempt.getDraw().toString());
+        addTimer.recordSince(start);
+    }
+
+    // Each seeker's latest attempt at the skill's quiz, whatever version it was taken on.
+    public static List<QuizAttempt> getLatestAttempts(String skillName) {
+        return new ArrayList<>(latestBySkill.getOrDefault(SessionManager.normalizeSkillName(skillName), Collections.emptyMap()).values());
+    }
+
+    public static boolean isLatest(QuizAttempt attempt) {
+        Map<String, QuizAttempt> latest = latestBySkill.get(SessionManager.normalizeSkillName(attempt.getSkillName()));
+        return latest != null && latest.get(attempt.getSeekerId()) == attempt;
+    }
+
+    public static List<QuizAttempt> getAllAttempts() {
+        return new ArrayList<>(allAttempts);
+    }
+
+    public static void clearAllAttempts() {
+        locks.lockAll();
+        try {
+            allAttempts.clear();
+            latestBySkill.clear();
+        } finally {
+            locks.unlockAll();
+        }
+        DataDomain.QUIZ_ATTEMPTS.markChanged();
+    }
+}
+
+enum Difficulty {
+    EASY, MEDIUM, HARD;
+
+    // Reads a stored or typed difficulty; anything else, including blank, is null ("any difficulty").
+    public static Difficulty parse(String value) {
+        if (value != null) {
+            for (Difficulty difficulty : values()) {
+                if (difficulty.name().equalsIgnoreCase(value.trim())) return difficulty;
+            }
+        }
+        return null;
+    }
+}
+
+// A question in a skill's bank, with the tags and difficulty quizzes are drawn by. Tags are stored trimmed and
+// lower case, without the characters the storage formats use as separators.
+class BankQuestion {
+    private final String skillName;
+    private final Question question;
+    private final List<String> tags;
+    private final Difficulty difficulty;
+
+    public BankQuestion(String skillName, Question question, Collection<String> tags, Difficulty difficulty) {
+        this.skillName = skillName;
+        this.question = question;
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            String value = normalizeTag(tag);
+            if (value != null) normalized.add(value);
+        }
+        this.tags = List.copyOf(normalized);
+        this.difficulty = difficulty != null ? difficulty : Difficulty.MEDIUM;
+    }
+
+    public String getSkillName() { return skillName; }
+    public Question getQuestion() { return question; }
+    public List<String> getTags() { return tags; }
+    public Difficulty getDifficulty() { return difficulty; }
+
+    // Null for a tag that is blank once cleaned up.
+    public static String normalizeTag(String tag) {
+        if (tag == null) return null;
+        String value = tag.replaceAll("[|;,]", " ").trim().toLowerCase(Locale.ROOT);
+        return value.isEmpty() ? null : value;
+    }
+
+    // Line layout: skillName|difficulty|tag,tag|question, with the question as in a quiz line.
+    public static BankQuestion fromString(String line) {
+        FieldSplitter parts = new FieldSplitter('|');
+        if (parts.split(line) != 4) return null;
+        List<String> tags = parts.isEmpty(2) ? List.of() : Arrays.asList(FieldSplitter.splitToArray(parts.get(2), ','));
+        return new BankQuestion(parts.get(0), Question.fromString(parts.get(3)), tags, Difficulty.parse(parts.get(1)));
+    }
+
+    @Override
+    public String toString() {
+        return skillName + "|" + difficulty + "|" + String.join(",", tags) + "|" + question;
+    }
+}
+
+// How a generated quiz was drawn from a skill's bank: the random seed, how many questions the bank held, how
+// many to draw and the optional tag and difficulty filter. The bank only grows, so the same draw always
+// gives the same questions in the same order with the same option order, and an attempt at a generated quiz
+// only has to keep its draw to be graded again. Text form: seed,bankSize,questionCount,tag,difficulty.
+class QuizDraw {
+    private final long seed;
+    private final int bankSize;
+    private final int questionCount;
+    private final String tag;
+    private final Difficulty difficulty;
+
+    public QuizDraw(long seed, int bankSize, int questionCount, String tag, Difficulty difficulty) {
+        this.seed = seed;
+        this.bankSize = bankSize;
+        this.questionCount = questionCount;
+        this.tag = BankQuestion.normalizeTag(tag);
+        this.difficulty = difficulty;
+    }
+
+    public long getSeed() { return seed; }
+    public int getBankSize() { return bankSize; }
+    public int getQuestionCount() { return questionCount; }
+    public String getTag() { return tag; }
+    public Difficulty getDifficulty() { return difficulty; }
+
+    public static QuizDraw fromString(String value) {
+        FieldSplitter parts = new FieldSplitter(',');
+        if (parts.split(value) != 5) {
+            throw new IllegalArgumentException("Not a quiz draw: " + value);
+        }
+        return new QuizDraw(Long.parseLong(parts.get(0)), parts.getInt(1), parts.getInt(2),
+                parts.isEmpty(3) ? null : parts.get(3), Difficulty.parse(parts.get(4)));
+    }
+
+    @Override
+    public String toString() {
+        return seed + "," + bankSize + "," + questionCount + "," + (tag == null ? "" : tag) + ","
+                + (difficulty == null ? "" : difficulty.name());
+    }
+}
+
+// One skill's question bank. A question's number is its position, and the bank only grows. For each filter
+// a draw can use (any, a tag, a difficulty, or both) the bank keeps the ascending numbers of the matching
+// questions, so drawing N questions takes O(N) steps over that pool, however large the bank is.
+class QuestionBank {
+    private final String skillName;
+    private BankQuestion[] questions = new BankQuestion[16];
+    private int size;
+    private final Map<String, Pool> pools = new HashMap<>();
+
+    // Ascending question numbers matching one filter.
+    private static final class Pool {
+        int[] numbers = new int[8];
+        int size;
+
+        void add(int number) {
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+            }
+            numbers[size++] = number;
+        }
+
+        // How many of the pool's questions were in a bank of the given size.
+        int countBelow(int bankSize) {
+            int index = Arrays.binarySearch(numbers, 0, size, bankSize);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    public QuestionBank(String skillName) {
+        this.skillName = skillName;
+    }
+
+    public String getSkillName() { return skillName; }
+
+    public synchronized int size() { return size; }
+
+    public synchronized void add(BankQuestion question) {
+        int number = size;
+        if (size == questions.length) {
+            questions = Arrays.copyOf(questions, size * 2);
+        }
+        questions[size++] = question;
+        for (String tag : question.getTags()) {
+            pool(tag, null).add(number);
+            pool(tag, question.getDifficulty()).add(number);
+        }
+        pool(null, null).add(number);
+        pool(null, question.getDifficulty()).add(number);
+    }
+
+    private Pool pool(String tag, Difficulty difficulty) {
+        return pools.computeIfAbsent(poolKey(tag, difficulty), k -> new Pool());
+    }
+
+    private static String poolKey(String tag, Difficulty difficulty) {
+        return (tag == null ? "" : tag) + "|" + (difficulty == null ? "" : difficulty.name());
+    }
+
+    public synchronized List<BankQuestion> getQuestions() {
+        return new ArrayList<>(Arrays.asList(questions).subList(0, size));
+    }
+
+    // A draw of up to questionCount questions matching the filter from the bank as it is now, or empty if no
+    // question matches.
+    public synchronized Optional<QuizDraw> newDraw(long seed, int questionCount, String tag, Difficulty difficulty) {
+        QuizDraw draw = new QuizDraw(seed, size, questionCount, tag, difficulty);
+        Pool pool = pools.get(poolKey(draw.getTag(), difficulty));
+        return pool == null || pool.countBelow(size) == 0 ? Optional.empty() : Optional.of(draw);
+    }
+
+    // Builds the quiz a draw stands for: the questions picked by a partial Fisher-Yates shuffle of the pool,
+    // each with its options shuffled, all from one Random seeded with the draw's seed.
+    public synchronized Quiz generate(QuizDraw draw) {
+        Pool pool = pools.get(poolKey(draw.getTag(), draw.getDifficulty()));
+        int poolSize = pool == null ? 0 : pool.countBelow(Math.min(draw.getBankSize(), size));
+        Random random = new Random(draw.getSeed());
+        Quiz quiz = new Quiz(skillName);
+        for (int pick : sample(poolSize, Math.min(draw.getQuestionCount(), poolSize), random)) {
+            quiz.addQuestion(shuffleOptions(questions[pool.numbers[pick]].getQuestion(), random));
+        }
+        return quiz;
+    }
+
+    // count distinct positions out of 0..poolSize-1 in random order: Fisher-Yates over a virtual array of
+    // the positions, stopped after count swaps, with only the displaced entries stored.
+    static int[] sample(int poolSize, int count, Random random) {
+        int[] picks = new int[count];
+        Map<Integer, Integer> displaced = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(poolSize - i);
+            int atJ = displaced.getOrDefault(j, j);
+            displaced.put(j, displaced.getOrDefault(i, i));
+            picks[i] = atJ;
+        }
+        return picks;
+    }
+
+    private static Question shuffleOptions(Question question, Random random) {
+        List<String> options = new ArrayList<>(question.getOptions());
+        int correct = question.getCorrectAnswerIndex();
+        for (int i = options.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Collections.swap(options, i, j);
+            if (correct == i) correct = j;
+            else if (correct == j) correct = i;
+        }
+        return new Question(question.getQuestionText(), options, correct);
+    }
+}
+
+// Every skill's question bank.
+class QuestionBankManager {
+    private static final Map<String, QuestionBank> banksBySkillName = new ConcurrentHashMap<>();
+    private static final LatencyHistogram addTimer = PlatformMetrics.histogram("bank.add");
+    private static final LatencyHistogram generateTimer = PlatformMetrics.histogram("bank.generate");
+
+    public static void addQuestion(BankQuestion question) {
+        long start = System.nanoTime();
+        String key = SessionManager.normalizeSkillName(question.getSkillName());
+        banksBySkillName.computeIfAbsent(key, k -> new QuestionBank(question.getSkillName())).add(question);
+        DataDomain.QUESTION_BANK.markChanged();
+        PlatformJournal.append(JournalRecord.Type.ADD_BANK_QUESTION, question.toString());
+        addTimer.recordSince(start);
+    }
+
+    public static Optional<QuestionBank> getBank(String skillName) {
+        return Optional.ofNullable(banksBySkillName.get(SessionManager.normalizeSkillName(skillName)));
+    }
+
+    public static Optional<QuizDraw> newDraw(String skillName, long seed, int questionCount, String tag, Difficulty difficulty) {
+        return getBank(skillName).flatMap(bank -> bank.newDraw(seed, questionCount, tag, difficulty));
+    }
+
+    // The quiz a draw stands for, e.g. to grade an attempt at it again.
+    public static Optional<Quiz> generate(String skillName, QuizDraw draw) {
+        long start = System.nanoTime();
+        Optional<Quiz> quiz = getBank(skillName).map(bank -> bank.generate(draw));
+        generateTimer.recordSince(start);
+        return quiz;
+    }
+
+    // Each bank's questions in bank order, so reloading them gives every question its number back.
+    public static List<BankQuestion> getAllQuestions() {
+        List<BankQuestion> questions = new ArrayList<>();
+        for (QuestionBank bank : banksBySkillName.values()) {
+            questions.addAll(bank.getQuestions());
+        }
+        return questions;
+    }
+
+    public static void clearAllBanks() {
+        banksBySkillName.clear();
+        DataDomain.QUESTION_BANK.markChanged();
     }
 }
 
@@ -187,11 +829,12 @@ class Assignment {
     }
 
     public static Assignment fromString(String line) {
-        String[] parts = line.split("\\|");
-        Assignment assignment = new Assignment(parts[0], parts[1]);
-        if (parts.length > 2) {
-            assignment.setSubmittedByUserId(parts[2]);
-            assignment.setFilePath(parts[3]);
+        FieldSplitter parts = new FieldSplitter('|');
+        int count = parts.split(line);
+        Assignment assignment = new Assignment(parts.get(0), parts.get(1));
+        if (count > 3) {
+            assignment.setSubmittedByUserId(parts.get(2));
+            assignment.setFilePath(parts.get(3));
         }
         return assignment;
     }
@@ -203,19 +846,46 @@ class Assignment {
 }
 
 class AssignmentManager {
-    private static final List<Assignment> allAssignments = new ArrayList<>();
-    private static final List<Assignment> allSubmissions = new ArrayList<>();
+    private static final Queue<Assignment> allAssignments = new ConcurrentLinkedQueue<>();
+    private static final Queue<Assignment> allSubmissions = new ConcurrentLinkedQueue<>();
+    private static final Map<String, Assignment> assignmentsBySkillName = new ConcurrentHashMap<>();
+    private static final StripedLocks locks = new StripedLocks(16);
+    private static final LatencyHistogram addAssignmentTimer = PlatformMetrics.histogram("assignments.add");
+    private static final LatencyHistogram addSubmissionTimer = PlatformMetrics.histogram("submissions.add");
 
     public static void addAssignment(Assignment assignment) {
-        allAssignments.add(assignment);
+        long start = System.nanoTime();
+        String key = SessionManager.normalizeSkillName(assignment.getSkillName());
+        ReentrantLock lock = locks.forKey(key);
+        lock.lock();
+        try {
+            allAssignments.add(assignment);
+            assignmentsBySkillName.putIfAbsent(key, assignment);
+        } finally {
+            lock.unlock();
+        }
+        DataDomain.ASSIGNMENTS.markChanged();
+        PlatformJournal.append(JournalRecord.Type.ADD_ASSIGNMENT, assignment.getSkillName(), assignment.getDescription());
+        addAssignmentTimer.recordSince(start);
     }
 
     public static Optional<Assignment> getAssignmentBySkillName(String skillName) {
-        return allAssignments.stream().filter(a -> a.getSkillName().equalsIgnoreCase(skillName)).findFirst();
+        return Optional.ofNullable(assignmentsBySkillName.get(SessionManager.normalizeSkillName(skillName)));
     }
 
     public static void addSubmission(Assignment submission) {
-        allSubmissions.add(submission);
+        long start = System.nanoTime();
+        ReentrantLock lock = locks.forKey(SessionManager.normalizeSkillName(submission.getSkillName()));
+        lock.lock();
+        try {
+            allSubmissions.add(submission);
+        } finally {
+            lock.unlock();
+        }
+        DataDomain.SUBMISSIONS.markChanged();
+        PlatformJournal.append(JournalRecord.Type.SUBMIT_ASSIGNMENT, submission.getSkillName(), submission.getDescription(),
+                submission.getSubmittedByUserId(), submission.getFilePath());
+        addSubmissionTimer.recordSince(start);
     }
 
     public static Optional<Assignment> getSubmissionForUserAndSkill(String userId, String skillName) {
@@ -233,8 +903,16 @@ class AssignmentManager {
     }
 
     public static void clearAllAssignments() {
-        allAssignments.clear();
-        allSubmissions.clear();
+        locks.lockAll();
+        try {
+            allAssignments.clear();
+            allSubmissions.clear();
+            assignmentsBySkillName.clear();
+        } finally {
+            locks.unlockAll();
+        }
+        DataDomain.ASSIGNMENTS.markChanged();
+        DataDomain.SUBMISSIONS.markChanged();
     }
 }
 
@@ -251,8 +929,9 @@ class Lecture {
     public String getVideoFilePath() { return videoFilePath; }
 
     public static Lecture fromString(String line) {
-        String[] parts = line.split("\\|");
-        return new Lecture(parts[0], parts[1]);
+        FieldSplitter parts = new FieldSplitter('|');
+        parts.split(line);
+        return new Lecture(parts.get(0), parts.get(1));
     }
 
     @Override
@@ -262,14 +941,29 @@ class Lecture {
 }
 
 class LectureManager {
-    private static final List<Lecture> allLectures = new ArrayList<>();
+    private static final Queue<Lecture> allLectures = new ConcurrentLinkedQueue<>();
+    private static final Map<String, Lecture> lecturesBySkillName = new ConcurrentHashMap<>();
+    private static final StripedLocks locks = new StripedLocks(16);
+    private static final LatencyHistogram addTimer = PlatformMetrics.histogram("lectures.add");
 
     public static void addLecture(Lecture lecture) {
-        allLectures.add(lecture);
+        long start = System.nanoTime();
+        String key = SessionManager.normalizeSkillName(lecture.getSkillName());
+        ReentrantLock lock = locks.forKey(key);
+        lock.lock();
+        try {
+            allLectures.add(lecture);
+            lecturesBySkillName.putIfAbsent(key, lecture);
+        } finally {
+            lock.unlock();
+        }
+        DataDomain.LECTURES.markChanged();
+        PlatformJournal.append(JournalRecord.Type.ADD_LECTURE, lecture.getSkillName(), lecture.getVideoFilePath());
+        addTimer.recordSince(start);
     }
 
     public static Optional<Lecture> getLectureBySkillName(String skillName) {
-        return allLectures.stream().filter(l -> l.getSkillName().equalsIgnoreCase(skillName)).findFirst();
+        return Optional.ofNullable(lecturesBySkillName.get(SessionManager.normalizeSkillName(skillName)));
     }
 
     public static List<Lecture> getAllLectures() {
@@ -277,11 +971,17 @@ class LectureManager {
     }
 
     public static void clearAllLectures() {
-        allLectures.clear();
+        locks.lockAll();
+        try {
+            allLectures.clear();
+            lecturesBySkillName.clear();
+        } finally {
+            locks.unlockAll();
+        }
+        DataDomain.LECTURES.markChanged();
     }
 }
 
-
 // ==================================================================================================================
 // Original Classes from the file
 // ==================================================================================================================
@@ -316,80 +1016,266 @@ abstract class Skill {
     public String getSkillName() { return skillName; }
 }
 
-abstract class AbstractPerson implements User, LoginLogout {
-    protected String id;
-    protected String name;
-    protected String password;
-    private static int totalUsers = 0;
+// Salted PBKDF2 password hashes, stored as "pbkdf2-sha256$<iterations>$<salt>$<hash>" with Base64 salt and
+// hash. The iteration count for new hashes comes from the skillsharing.passwordIterations system property;
+// PasswordBenchmarks measures the cost of candidate counts. Older entries hold the plain password; they still
+// verify, and needsRehash() reports them (and hashes made with fewer iterations) so login can upgrade them.
+// Hashing is deliberately slow, so it never runs on the FX thread.
+class PasswordHasher {
+    static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    static final String PREFIX = "pbkdf2-sha256$";
+    static final int DEFAULT_ITERATIONS = 210_000;
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom random = new SecureRandom();
+
+    public static int getIterations() {
+        return Integer.getInteger("skillsharing.passwordIterations", DEFAULT_ITERATIONS);
+    }
 
-    private static long nextSeekerSequence = 1000;
-    private static long nextProviderSequence = 2000;
+    public static String hash(String password) {
+        return hash(password, getIterations());
+    }
 
-    public AbstractPerson(String id, String name, String password) {
-        this.id = id;
-        this.name = name;
-        this.password = password;
-        totalUsers++;
+    public static String hash(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + base64.encodeToString(salt) + "$"
+                + base64.encodeToString(derive(password, salt, iterations, HASH_BITS));
     }
 
-    @Override
-    public String getId() { return id; }
+    // Compares in constant time. A malformed stored hash never matches.
+    public static boolean verify(String password, String storedHash) {
+        if (password == null || storedHash == null) return false;
+        if (!isHashed(storedHash)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), storedHash.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = storedHash.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) return false;
+        try {
+            int iterations = Integer.parseInt(parts[0]);
+            byte[] salt = Base64.getDecoder().decode(parts[1]);
+            byte[] expected = Base64.getDecoder().decode(parts[2]);
+            if (iterations <= 0 || expected.length == 0) return false;
+            return MessageDigest.isEqual(expected, derive(password, salt, iterations, expected.length * 8));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
 
-    @Override
-    public String getName() { return name; }
+    public static boolean needsRehash(String storedHash) {
+        if (!isHashed(storedHash)) return true;
+        int end = storedHash.indexOf('$', PREFIX.length());
+        try {
+            return end < 0 || Integer.parseInt(storedHash.substring(PREFIX.length(), end)) < getIterations();
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
 
-    public String getPassword() { return password; }
+    public static boolean isHashed(String storedHash) {
+        return storedHash != null && storedHash.startsWith(PREFIX);
+    }
 
-    public static int getTotalUsers() { return totalUsers; }
+    private static byte[] derive(String password, byte[] salt, int iterations, int bits) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, bits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
 
-    public static void resetTotalUsers() {
-        totalUsers = 0;
+// Hands out user IDs: a per-type prefix followed by a number from that type's sequence. Taking a number is a
+// single atomic increment. Numbers are reserved in blocks, and each block's upper bound is written to the ID
+// file before any number from it is used, so after a restart allocation resumes above everything handed out
+// without scanning the users; the unused rest of the last block is skipped. New user types only need a
+// register() call. Without a readable ID file (first start, or a failed write) the caller observes every
+// existing ID instead, and the file is written again at the next reservation.
+class IdAllocator {
+    static final int BLOCK_SIZE = 100;
+
+    private static final PlatformLog log = PlatformLog.named("ids");
+    private static final Object reserveLock = new Object();
+    private static final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+    private static volatile Path idFile;
+
+    private static class Sequence {
+        final String type;
+        final String prefix;
+        final long first;
+        final AtomicLong next;
+        // Exclusive upper bound of the reserved block; numbers below it may be handed out.
+        final AtomicLong reservedUntil;
+
+        Sequence(String type, String prefix, long first) {
+            this.type = type;
+            this.prefix = prefix;
+            this.first = first;
+            this.next = new AtomicLong(first);
+            this.reservedUntil = new AtomicLong(first);
+        }
+    }
+
+    static {
+        register("seeker", "S", 1000);
+        register("provider", "P", 2000);
     }
 
-    public static String generateUniqueId(String type) {
-        if ("seeker".equalsIgnoreCase(type)) {
-            return "S" + nextSeekerSequence++;
-        } else if ("provider".equalsIgnoreCase(type)) {
-            return "P" + nextProviderSequence++;
+    public static void register(String type, String prefix, long first) {
+        String key = type.toLowerCase(Locale.ROOT);
+        for (Sequence sequence : sequences.values()) {
+            if (!sequence.type.equals(key) && (sequence.prefix.startsWith(prefix) || prefix.startsWith(sequence.prefix))) {
+                throw new IllegalArgumentException("ID prefix " + prefix + " overlaps the prefix of " + sequence.type);
+            }
         }
-        return "GEN_ERR_" + System.currentTimeMillis();
+        sequences.putIfAbsent(key, new Sequence(key, prefix, first));
     }
 
-    public static void updateIdCountersFromFile(String id) {
-        if (id.startsWith("S") && id.length() > 1) {
-            try {
-                long sequence = Long.parseLong(id.substring(1));
-                if (sequence >= nextSeekerSequence) {
-                    nextSeekerSequence = sequence + 1;
+    public static String next(String type) {
+        Sequence sequence = sequences.get(type.toLowerCase(Locale.ROOT));
+        if (sequence == null) {
+            throw new IllegalArgumentException("Unknown user type: " + type);
+        }
+        long number = sequence.next.getAndIncrement();
+        if (number >= sequence.reservedUntil.get()) {
+            reserve(sequence, number);
+        }
+        return sequence.prefix + number;
+    }
+
+    private static void reserve(Sequence sequence, long number) {
+        synchronized (reserveLock) {
+            if (number < sequence.reservedUntil.get()) return;
+            if (store(sequence, number + BLOCK_SIZE)) {
+                sequence.reservedUntil.set(number + BLOCK_SIZE);
+            } else {
+                // This number is handed out unrecorded, so the next start must scan the users instead.
+                sequence.reservedUntil.set(number + 1);
+                deleteIdFile();
+            }
+        }
+    }
+
+    // Moves the type's sequence past an ID that already exists, e.g. one found in the data files.
+    public static void observe(String id) {
+        for (Sequence sequence : sequences.values()) {
+            if (id.length() > sequence.prefix.length() && id.startsWith(sequence.prefix)) {
+                try {
+                    long number = Long.parseLong(id.substring(sequence.prefix.length()));
+                    sequence.next.accumulateAndGet(number + 1, Math::max);
+                } catch (NumberFormatException e) {
+                    log.warn(() -> "Error parsing " + sequence.type + " ID: " + id + ". Counter not updated.");
                 }
-            } catch (NumberFormatException e) {
-                System.err.println("Error parsing seeker ID from file: " + id + ". Counter not updated.");
+                return;
             }
-        } else if (id.startsWith("P") && id.length() > 1) {
-            try {
-                long sequence = Long.parseLong(id.substring(1));
-                if (sequence >= nextProviderSequence) {
-                    nextProviderSequence = sequence + 1;
+        }
+    }
+
+    // Resets every sequence to its first number and reads the reserved bounds from the ID file, resuming
+    // allocation above them. Returns false if the file is missing or unreadable; the caller must then
+    // observe() the existing IDs.
+    public static boolean load(Path file) {
+        idFile = file;
+        for (Sequence sequence : sequences.values()) {
+            sequence.next.set(sequence.first);
+            sequence.reservedUntil.set(sequence.first);
+        }
+        if (!Files.exists(file)) return false;
+        Properties bounds = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            bounds.load(reader);
+            for (Sequence sequence : sequences.values()) {
+                String bound = bounds.getProperty(sequence.type);
+                if (bound != null) {
+                    long reserved = Long.parseLong(bound.trim());
+                    sequence.next.accumulateAndGet(reserved, Math::max);
+                    sequence.reservedUntil.accumulateAndGet(reserved, Math::max);
                 }
-            } catch (NumberFormatException e) {
-                System.err.println("Error parsing provider ID from file: " + id + ". Counter not updated.");
             }
+            return true;
+        } catch (IOException | NumberFormatException e) {
+            log.error(() -> "Error reading ID file " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Writes every type's reserved bound, with the given one for the type being extended, through a temporary
+    // file, so a crash leaves the old file intact.
+    private static boolean store(Sequence extended, long bound) {
+        Path file = idFile;
+        if (file == null) return true;
+        Properties bounds = new Properties();
+        for (Sequence sequence : sequences.values()) {
+            long reserved = sequence == extended ? bound : sequence.reservedUntil.get();
+            bounds.setProperty(sequence.type, String.valueOf(Math.max(sequence.next.get(), reserved)));
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                bounds.store(writer, "Reserved user ID bounds; IDs below these may be in use");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            log.error(() -> "Error writing ID file " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void deleteIdFile() {
+        try {
+            Files.deleteIfExists(idFile);
+        } catch (IOException e) {
+            log.error(() -> "Error deleting ID file " + idFile + ": " + e.getMessage());
         }
     }
+}
+
+abstract class AbstractPerson implements User, LoginLogout {
+    protected String id;
+    protected String name;
+    // A PasswordHasher hash, or the plain password for accounts that have not logged in since hashing came in.
+    protected volatile String passwordHash;
+    private static final AtomicInteger totalUsers = new AtomicInteger();
+    protected static final PlatformLog log = PlatformLog.named("users");
+
+    public AbstractPerson(String id, String name, String passwordHash) {
+        this.id = id;
+        this.name = name;
+        this.passwordHash = passwordHash;
+        totalUsers.incrementAndGet();
+    }
+
+    @Override
+    public String getId() { return id; }
+
+    @Override
+    public String getName() { return name; }
+
+    public String getPasswordHash() { return passwordHash; }
 
-    public static void resetIdSequences() {
-        nextSeekerSequence = 1000;
-        nextProviderSequence = 2000;
+    // Replaces the stored hash, e.g. when a login upgrades a plain password or an older work factor.
+    void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
+
+    public static int getTotalUsers() { return totalUsers.get(); }
+
+    public static void resetTotalUsers() {
+        totalUsers.set(0);
     }
 
     @Override
     public void login() {
-        System.out.println(name + " (" + id + ") logged in.");
+        log.info(() -> name + " (" + id + ") logged in.");
     }
 
     @Override
     public void logout() {
-        System.out.println(name + " (" + id + ") logged out.");
+        log.info(() -> name + " (" + id + ") logged out.");
     }
 
     @Override
@@ -406,384 +1292,4234 @@ abstract class AbstractPerson implements User, LoginLogout {
     }
 }
 
-class Session extends Skill {
-    private String skillSlotTiming;
-    private String skillInstructor;
-    private int sessionDuration;
-    private int skillRating;
-    private int numberOfRatings;
-    private List<String> enrolledUserIds = new ArrayList<>();
-    private static final int MAX_ENROLLED_STUDENTS = 50;
+// Case-insensitive index of users by name, next to the ID-keyed map the app keeps. Names aren't unique, so a
+// name maps to every user registered under it, keyed by ID. Filled by the loader, the journal replay and
+// registration on the platform thread; readers never lock.
+class UserNameIndex {
+    private static final Map<String, Map<String, AbstractPerson>> usersByName = new ConcurrentHashMap<>();
 
-    public Session(String skillName, String skillCode, String skillSlotTiming, String skillInstructor, int sessionDuration) {
-        super(skillName, skillCode);
-        this.skillSlotTiming = skillSlotTiming;
-        this.skillInstructor = skillInstructor;
-        this.sessionDuration = sessionDuration;
-        this.skillRating = 0;
-        this.numberOfRatings = 0;
+    public static void add(AbstractPerson person) {
+        usersByName.computeIfAbsent(normalizeName(person.getName()), k -> new ConcurrentHashMap<>()).put(person.getId(), person);
     }
 
-    public Session(String skillName, String skillCode, String skillSlotTiming, String skillInstructor, int sessionDuration, int skillRating, int numberOfRatings, List<String> enrolledUserIds) {
-        super(skillName, skillCode);
-        this.skillSlotTiming = skillSlotTiming;
-        this.skillInstructor = skillInstructor;
-        this.sessionDuration = sessionDuration;
-        this.skillRating = skillRating;
-        this.numberOfRatings = numberOfRatings;
-        if (enrolledUserIds != null) {
-            this.enrolledUserIds.addAll(enrolledUserIds);
+    public static List<AbstractPerson> findByName(String name) {
+        if (name == null) return new ArrayList<>();
+        return new ArrayList<>(usersByName.getOrDefault(normalizeName(name), Collections.emptyMap()).values());
+    }
+
+    public static void clear() {
+        usersByName.clear();
+    }
+
+    public static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
+
+// Token buckets for failed logins, one per ID and one per name. Each failure takes a token and tokens come
+// back at a fixed rate, so a burst of failures is allowed and then one attempt per refill interval. A bucket
+// that has refilled completely holds no information and is dropped, and the map keeps at most maxBuckets of the
+// most recently used ones, so a script trying endless IDs or names can't grow it. An evicted bucket forgets
+// its key's failures, which takes more than maxBuckets other keys failing in between.
+class LoginRateLimiter {
+    private final int capacity;
+    private final long refillNanos;
+    private final Map<String, Bucket> buckets;
+
+    private static class Bucket {
+        double tokens;
+        long updatedNanos;
+    }
+
+    public LoginRateLimiter(int capacity, long refillMillis, int maxBuckets) {
+        this.capacity = capacity;
+        this.refillNanos = TimeUnit.MILLISECONDS.toNanos(refillMillis);
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > maxBuckets;
+            }
+        };
+    }
+
+    // Seconds until both the ID and the name have a token left; 0 if an attempt may go ahead now.
+    public synchronized long secondsUntilAllowed(String id, String name) {
+        long now = System.nanoTime();
+        long waitNanos = 0;
+        for (String key : keys(id, name)) {
+            Bucket bucket = refill(key, now);
+            if (bucket != null && bucket.tokens < 1) {
+                waitNanos = Math.max(waitNanos, (long) ((1 - bucket.tokens) * refillNanos));
+            }
         }
+        return waitNanos == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos));
     }
 
-    public String getSkillSlotTiming() { return skillSlotTiming; }
-    public String getSkillInstructor() { return skillInstructor; }
-    public int getSessionDuration() { return sessionDuration; }
-    public int getRawSkillRating() { return skillRating; }
-    public int getNumberOfRatings() { return numberOfRatings; }
-    public List<String> getEnrolledUserIds() { return new ArrayList<>(enrolledUserIds); }
-    public int getCurrentEnrollmentCount() { return enrolledUserIds.size(); }
-    public boolean isFull() { return enrolledUserIds.size() >= MAX_ENROLLED_STUDENTS; }
-    public boolean isUserEnrolled(String userId) { return enrolledUserIds.contains(userId); }
-
-    public void addRating(int rating) {
-        if (rating >= 1 && rating <= 5) {
-            this.skillRating += rating;
-            this.numberOfRatings++;
-        } else {
-            System.out.println("Invalid rating: " + rating + ". Rating must be between 1 and 5.");
+    public synchronized void recordFailure(String id, String name) {
+        long now = System.nanoTime();
+        for (String key : keys(id, name)) {
+            Bucket bucket = refill(key, now);
+            if (bucket == null) {
+                bucket = new Bucket();
+                bucket.tokens = capacity;
+                bucket.updatedNanos = now;
+                buckets.put(key, bucket);
+            }
+            bucket.tokens = Math.max(0, bucket.tokens - 1);
         }
     }
 
-    public void addEnrolledUser(String userId) {
-        if (!enrolledUserIds.contains(userId) && !isFull()) {
-            enrolledUserIds.add(userId);
-            System.out.println("User " + userId + " enrolled in " + skillName);
-        } else if (enrolledUserIds.contains(userId)) {
-            System.out.println("User " + userId + " is already enrolled in " + skillName);
-        } else {
-            System.out.println("Session " + skillName + " is full. Cannot enroll user " + userId);
+    public synchronized void recordSuccess(String id, String name) {
+        for (String key : keys(id, name)) {
+            buckets.remove(key);
         }
     }
 
-    public double getAverageSkillRating() {
-        return numberOfRatings == 0 ? 0 : (double) skillRating / numberOfRatings;
+    // Brings the bucket up to date, dropping it if it is full again; returns null if there is none.
+    private Bucket refill(String key, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) return null;
+        bucket.tokens = Math.min(capacity, bucket.tokens + (double) (now - bucket.updatedNanos) / refillNanos);
+        bucket.updatedNanos = now;
+        if (bucket.tokens >= capacity) {
+            buckets.remove(key);
+            return null;
+        }
+        return bucket;
     }
 
-    @Override
-    public String toString() {
-        return "Session: " + skillName + " (Code: " + skillCode +
-                ") | Timing: " + skillSlotTiming +
-                " | Instructor: " + skillInstructor +
-                " | Duration: " + sessionDuration + " mins" +
-                " | Enrolled: " + enrolledUserIds.size() + "/" + MAX_ENROLLED_STUDENTS +
-                " | Avg Rating: " + String.format("%.1f", getAverageSkillRating());
+    private static String[] keys(String id, String name) {
+        return new String[] {"id:" + id, "name:" + UserNameIndex.normalizeName(name)};
     }
 }
 
-class SessionManager {
-    private static final List<Session> totalSessionData = new ArrayList<>();
+// Maps user IDs to dense int ordinals so per-session structures can store ints instead of String references.
+// Ordinals are never reused; idOf() is lock-free.
+class UserIdInterner {
+    private static final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private static volatile String[] ids = new String[1024];
+    private static int nextOrdinal = 0;
 
-    public static void addSession(Session session) {
-        totalSessionData.add(session);
-        System.out.println("Session added successfully: " + session.getSkillName());
+    public static int intern(String userId) {
+        Integer ordinal = ordinals.get(userId);
+        return ordinal != null ? ordinal : ordinals.computeIfAbsent(userId, UserIdInterner::allocate);
     }
 
-    public static List<Session> getAllSessions() {
-        return new ArrayList<>(totalSessionData);
+    // Returns the ordinal of an already interned ID, or -1 if the ID has never been seen.
+    public static int find(String userId) {
+        Integer ordinal = ordinals.get(userId);
+        return ordinal == null ? -1 : ordinal;
     }
 
-    public static Optional<Session> getSessionBySkillName(String skillName) {
-        return totalSessionData.stream()
-                .filter(s -> s.getSkillName().equalsIgnoreCase(skillName))
-                .findFirst();
+    public static String idOf(int ordinal) {
+        return ids[ordinal];
     }
 
-    public static void clearAllSessions() {
-        totalSessionData.clear();
+    private static synchronized int allocate(String userId) {
+        String[] current = ids;
+        if (nextOrdinal == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[nextOrdinal] = userId;
+        ids = current;
+        return nextOrdinal++;
     }
 }
 
-class RequestedSession {
-    private String skillName;
-    private String requestedByUserId;
-    private String timing;
-    private int duration;
-    private String status;
+// Set of enrolled user ordinals: an open-addressing int hash table for O(1) membership plus an
+// insertion-ordered member array for iteration. Writers must hold the owning session's monitor; readers don't
+// need to, since the member array only ever grows by append and is republished through a volatile write.
+class EnrollmentSet {
+    private static final int EMPTY = -1;
+    // Capacity is only a hint: very large sessions start at this size and grow, rather than preallocating.
+    private static final int MAX_PRESIZE = 1024;
+
+    private volatile int[] table;
+    private volatile int[] members;
+    private volatile int size;
+
+    public EnrollmentSet(int expectedSize) {
+        int tableSize = Integer.highestOneBit(Math.max(4, Math.min(expectedSize, MAX_PRESIZE)) * 2 - 1) << 1;
+        table = new int[tableSize];
+        Arrays.fill(table, EMPTY);
+        members = new int[Math.max(4, Math.min(expectedSize, 64))];
+    }
 
-    public RequestedSession(String skillName, String requestedByUserId, String timing, int duration) {
-        this.skillName = skillName;
-        this.requestedByUserId = requestedByUserId;
-        this.timing = timing;
-        this.duration = duration;
-        this.status = "PENDING";
+    public int size() { return size; }
+
+    public boolean contains(int ordinal) {
+        if (ordinal < 0) return false;
+        int[] current = table;
+        int mask = current.length - 1;
+        for (int slot = mix(ordinal) & mask; ; slot = (slot + 1) & mask) {
+            int value = current[slot];
+            if (value == ordinal) return true;
+            if (value == EMPTY) return false;
+        }
     }
 
-    public String getSkillName() { return skillName; }
-    public String getRequestedByUserId() { return requestedByUserId; }
-    public String getTiming() { return timing; }
-    public int getDuration() { return duration; }
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public boolean add(int ordinal) {
+        if (contains(ordinal)) return false;
+        if ((size + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        insert(table, ordinal);
+        int[] currentMembers = members;
+        if (size == currentMembers.length) {
+            currentMembers = Arrays.copyOf(currentMembers, currentMembers.length * 2);
+        }
+        currentMembers[size] = ordinal;
+        members = currentMembers;
+        size = size + 1;
+        return true;
+    }
 
-    @Override
-    public String toString() {
-        return "Request: " + skillName + " by " + requestedByUserId + " (Timing: " + timing + ", Duration: " + duration + " mins, Status: " + status + ")";
+    // Read-only view of the enrolled user IDs in enrollment order. Iteration covers the members present when
+    // the iterator was created and never copies the set.
+    public Collection<String> asUserIds() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<String> iterator() {
+                int count = size;
+                int[] snapshot = members;
+                return new Iterator<>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() { return index < count; }
+
+                    @Override
+                    public String next() {
+                        if (index >= count) throw new NoSuchElementException();
+                        return UserIdInterner.idOf(snapshot[index++]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() { return size; }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String && EnrollmentSet.this.contains(UserIdInterner.find((String) o));
+            }
+        };
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        RequestedSession that = (RequestedSession) o;
-        return Objects.equals(skillName, that.skillName) &&
-                Objects.equals(requestedByUserId, that.requestedByUserId) &&
-                Objects.equals(timing, that.timing) &&
-                duration == that.duration;
+    private void rehash(int newLength) {
+        int[] newTable = new int[newLength];
+        Arrays.fill(newTable, EMPTY);
+        int[] currentMembers = members;
+        for (int i = 0; i < size; i++) {
+            insert(newTable, currentMembers[i]);
+        }
+        table = newTable;
     }
 
-    @Override
-    public int hashCode() {
-        return Objects.hash(skillName, requestedByUserId, timing, duration);
+    private static void insert(int[] target, int ordinal) {
+        int mask = target.length - 1;
+        int slot = mix(ordinal) & mask;
+        while (target[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        target[slot] = ordinal;
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
     }
 }
 
-class RequestedSessionManager {
-    private static final List<RequestedSession> pendingRequests = new ArrayList<>();
+// One seeker's rating of one session, as stored: the session is identified by its skill code, and the time is
+// when the rating was last given, in epoch milliseconds.
+class SessionRating {
+    private final String skillCode;
+    private final String seekerId;
+    private final int rating;
+    private final long ratedAt;
+
+    public SessionRating(String skillCode, String seekerId, int rating, long ratedAt) {
+        this.skillCode = skillCode;
+        this.seekerId = seekerId;
+        this.rating = rating;
+        this.ratedAt = ratedAt;
+    }
+
+    public String getSkillCode() { return skillCode; }
+    public String getSeekerId() { return seekerId; }
+    public int getRating() { return rating; }
+    public long getRatedAt() { return ratedAt; }
+}
+
+// A session's ratings keyed by seeker: an open-addressing table from user ordinal to an entry index, with the
+// entries in parallel arrays, so finding or replacing a seeker's rating is O(1) and an entry costs 13 bytes
+// plus its slot. Sums are kept as entries change, both plain and weighted by age, where a rating's weight
+// halves every HALF_LIFE_MILLIS. Weights are taken relative to an anchor time rather than to now: every weight
+// decays by the same factor as time passes, so the ratio that is the decayed average stays correct without
+// revisiting old entries. Guarded by the owning session's monitor, readers included.
+class SessionRatings {
+    static final long HALF_LIFE_MILLIS = TimeUnit.DAYS.toMillis(30);
+    // Weights grow as 2^(half-lives past the anchor); beyond this the anchor moves up and the sums are rebuilt.
+    private static final double MAX_HALF_LIVES = 512;
+    private static final int EMPTY = -1;
+
+    private int[] table = newTable(8);
+    private int[] seekers = new int[4];
+    private byte[] ratings = new byte[4];
+    private long[] ratedAt = new long[4];
+    private int size;
+    private long sum;
+    private long anchorMillis;
+    private double weightedSum;
+    private double weightTotal;
+
+    public int size() { return size; }
+    public long sum() { return sum; }
+
+    public int seekerAt(int index) { return seekers[index]; }
+    public int ratingAt(int index) { return ratings[index]; }
+    public long ratedAtAt(int index) { return ratedAt[index]; }
+
+    // The entry index of the seeker's rating, or -1 if they haven't rated.
+    public int indexOf(int ordinal) {
+        if (ordinal < 0) return -1;
+        int mask = table.length - 1;
+        for (int slot = mix(ordinal) & mask; ; slot = (slot + 1) & mask) {
+            int index = table[slot];
+            if (index == EMPTY) return -1;
+            if (seekers[index] == ordinal) return index;
+        }
+    }
 
-    public static void addRequest(RequestedSession request) {
-        if (!pendingRequests.contains(request)) {
-            pendingRequests.add(request);
-            System.out.println("Request added: " + request.getSkillName());
+    // Adds the seeker's rating or replaces the one they gave before.
+    public void put(int ordinal, int rating, long ratedAtMillis) {
+        if (size == 0) {
+            anchorMillis = ratedAtMillis;
+        } else if ((ratedAtMillis - anchorMillis) / (double) HALF_LIFE_MILLIS > MAX_HALF_LIVES) {
+            rebase(ratedAtMillis);
+        }
+        int index = indexOf(ordinal);
+        if (index >= 0) {
+            double weight = weight(ratedAt[index]);
+            sum -= ratings[index];
+            weightedSum -= ratings[index] * weight;
+            weightTotal -= weight;
         } else {
-            System.out.println("Request for '" + request.getSkillName() + "' by " + request.getRequestedByUserId() + " already exists.");
+            if ((size + 1) * 2 > table.length) {
+                rehash(table.length * 2);
+            }
+            if (size == seekers.length) {
+                int capacity = size * 2;
+                seekers = Arrays.copyOf(seekers, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+                ratedAt = Arrays.copyOf(ratedAt, capacity);
+            }
+            index = size++;
+            seekers[index] = ordinal;
+            insert(table, ordinal, index);
         }
+        ratings[index] = (byte) rating;
+        ratedAt[index] = ratedAtMillis;
+        double weight = weight(ratedAtMillis);
+        sum += rating;
+        weightedSum += rating * weight;
+        weightTotal += weight;
     }
 
-    public static List<RequestedSession> getAllRequests() {
-        return new ArrayList<>(pendingRequests);
+    public double decayedAverage() {
+        return weightTotal > 0 ? weightedSum / weightTotal : 0;
     }
 
-    public static void removeRequest(RequestedSession request) {
-        pendingRequests.remove(request);
-        System.out.println("Request removed: " + request.getSkillName());
+    public void clear() {
+        table = newTable(8);
+        seekers = new int[4];
+        ratings = new byte[4];
+        ratedAt = new long[4];
+        size = 0;
+        sum = 0;
+        weightedSum = 0;
+        weightTotal = 0;
     }
 
-    public static void clearRequests() {
-        pendingRequests.clear();
+    private double weight(long ratedAtMillis) {
+        return Math.pow(2, (ratedAtMillis - anchorMillis) / (double) HALF_LIFE_MILLIS);
     }
-}
 
-class Result {
-    private String seekerId;
-    private String skillName;
-    private int marks;
+    private void rebase(long newAnchorMillis) {
+        anchorMillis = newAnchorMillis;
+        weightedSum = 0;
+        weightTotal = 0;
+        for (int i = 0; i < size; i++) {
+            double weight = weight(ratedAt[i]);
+            weightedSum += ratings[i] * weight;
+            weightTotal += weight;
+        }
+    }
 
-    public Result(String seekerId, String skillName, int marks) {
-        this.seekerId = seekerId;
-        this.skillName = skillName;
-        this.marks = marks;
+    private void rehash(int newLength) {
+        int[] newTable = newTable(newLength);
+        for (int i = 0; i < size; i++) {
+            insert(newTable, seekers[i], i);
+        }
+        table = newTable;
     }
 
-    public String getSeekerId() { return seekerId; }
-    public String getSkillName() { return skillName; }
-    public int getMarks() { return marks; }
+    private void insert(int[] target, int ordinal, int index) {
+        int mask = target.length - 1;
+        int slot = mix(ordinal) & mask;
+        while (target[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        target[slot] = index;
+    }
 
-    @Override
-    public String toString() {
-        return "Skill: " + skillName + " - Marks: " + marks;
+    private static int[] newTable(int length) {
+        int[] newTable = new int[length];
+        Arrays.fill(newTable, EMPTY);
+        return newTable;
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
     }
 }
 
-class ResultManager {
-    private static final List<Result> allResults = new ArrayList<>();
+class Session extends Skill {
+    public static final int DEFAULT_CAPACITY = 50;
+    private static final PlatformLog log = PlatformLog.named("sessions");
+    private static final LatencyHistogram enrollTimer = PlatformMetrics.histogram("sessions.enroll");
+    private static final LongAdder rejectedEnrollments = PlatformMetrics.counter("sessions.enroll.rejected");
 
-    public static void addResult(Result result) {
-        allResults.removeIf(r -> r.getSeekerId().equals(result.getSeekerId()) && r.getSkillName().equals(result.getSkillName()));
-        allResults.add(result);
-        System.out.println("Result added/updated: " + result.getSeekerId() + " - " + result.getSkillName() + ": " + result.getMarks());
+    private String skillSlotTiming;
+    private String skillInstructor;
+    private int sessionDuration;
+    // Rating totals carried over from data saved before ratings were kept per seeker. They still count towards
+    // the average, but no seeker owns them, so they can't be replaced and carry no time for the decayed average.
+    private int legacyRatingSum;
+    private int legacyRatingCount;
+    private volatile int capacity;
+    private final EnrollmentSet enrolledUsers;
+    private final SessionRatings ratings = new SessionRatings();
+    // Bumped on every change to what toString() shows; the rendered summary is cached per version.
+    private volatile int version;
+    private String summary;
+    private int summaryVersion = -1;
+
+    public Session(String skillName, String skillCode, String skillSlotTiming, String skillInstructor, int sessionDuration) {
+        this(skillName, skillCode, skillSlotTiming, skillInstructor, sessionDuration, DEFAULT_CAPACITY);
     }
 
-    public static List<Result> getResultsForSeeker(String seekerId) {
-        return allResults.stream()
-                .filter(r -> r.getSeekerId().equals(seekerId))
-                .collect(Collectors.toList());
+    public Session(String skillName, String skillCode, String skillSlotTiming, String skillInstructor, int sessionDuration, int capacity) {
+        super(skillName, skillCode);
+        this.skillSlotTiming = skillSlotTiming;
+        this.skillInstructor = skillInstructor;
+        this.sessionDuration = sessionDuration;
+        this.capacity = capacity;
+        this.enrolledUsers = new EnrollmentSet(capacity);
     }
 
-    public static Optional<Result> getResultForSeekerAndSkill(String seekerId, String skillName) {
-        return allResults.stream()
-                .filter(r -> r.getSeekerId().equals(seekerId) && r.getSkillName().equalsIgnoreCase(skillName))
-                .findFirst();
+    public Session(String skillName, String skillCode, String skillSlotTiming, String skillInstructor, int sessionDuration, int skillRating, int numberOfRatings, List<String> enrolledUserIds) {
+        this(skillName, skillCode, skillSlotTiming, skillInstructor, sessionDuration, skillRating, numberOfRatings, enrolledUserIds, DEFAULT_CAPACITY);
     }
 
-    public static List<Result> getAllResults() {
-        return new ArrayList<>(allResults);
+    public Session(String skillName, String skillCode, String skillSlotTiming, String skillInstructor, int sessionDuration, int skillRating, int numberOfRatings, List<String> enrolledUserIds, int capacity) {
+        this(skillName, skillCode, skillSlotTiming, skillInstructor, sessionDuration, capacity);
+        this.legacyRatingSum = skillRating;
+        this.legacyRatingCount = numberOfRatings;
+        if (enrolledUserIds != null) {
+            // Stored enrollments are restored as-is, even if the session is over capacity.
+            for (String userId : enrolledUserIds) {
+                enrolledUsers.add(UserIdInterner.intern(userId));
+            }
+        }
     }
 
-    public static void clearAllResults() {
-        allResults.clear();
+    // Ratings and enrollment writes are guarded by the session's own monitor, so concurrent enrollers in
+    // different sessions never contend and the capacity check and the insert happen atomically. Enrollment
+    // reads go straight to the EnrollmentSet without locking.
+    public String getSkillSlotTiming() { return skillSlotTiming; }
+    public String getSkillInstructor() { return skillInstructor; }
+    public int getSessionDuration() { return sessionDuration; }
+    public synchronized int getLegacyRatingSum() { return legacyRatingSum; }
+    public synchronized int getLegacyRatingCount() { return legacyRatingCount; }
+    public synchronized int getNumberOfRatings() { return legacyRatingCount + ratings.size(); }
+    public Collection<String> getEnrolledUserIds() { return enrolledUsers.asUserIds(); }
+    public int getCurrentEnrollmentCount() { return enrolledUsers.size(); }
+    public int getCapacity() { return capacity; }
+    public boolean isFull() { return enrolledUsers.size() >= capacity; }
+    public boolean isUserEnrolled(String userId) { return enrolledUsers.contains(UserIdInterner.find(userId)); }
+    public int getVersion() { return version; }
+
+    // Lowering the capacity below the current enrollment keeps existing enrollees but blocks new ones.
+    public void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, got " + capacity);
+        }
+        synchronized (this) {
+            this.capacity = capacity;
+            version++;
+        }
+        SessionManager.fireSessionChanged(this);
     }
-}
 
-class SkillSeeker extends AbstractPerson implements SessionActions {
-    private List<String> enrolledSessionNames = new ArrayList<>();
-    private List<RequestedSession> myRequestedSessions = new ArrayList<>();
-    private List<Result> myResults = new ArrayList<>();
+    // Records the user's rating, replacing any rating they gave this session before. Returns false if the
+    // rating is out of range.
+    public boolean rate(String userId, int rating, long ratedAtMillis) {
+        if (rating < 1 || rating > 5) {
+            log.warn(() -> "Invalid rating: " + rating + ". Rating must be between 1 and 5.");
+            return false;
+        }
+        int ordinal = UserIdInterner.intern(userId);
+        synchronized (this) {
+            int index = ratings.indexOf(ordinal);
+            int previous = index < 0 ? 0 : ratings.ratingAt(index);
+            long previousAt = index < 0 ? 0 : ratings.ratedAtAt(index);
+            ratings.put(ordinal, rating, ratedAtMillis);
+            version++;
+            // Under the monitor, so concurrent re-ratings reach the analytics in the order they were applied.
+            SkillAnalytics.ratingRecorded(skillName, previous, previousAt, rating, ratedAtMillis);
+        }
+        SessionManager.fireRatingsChanged(this);
+        return true;
+    }
 
-    public SkillSeeker(String name, String password) {
-        super(AbstractPerson.generateUniqueId("seeker"), name, password);
+    // The user's current rating of this session, or 0 if they haven't rated it.
+    public synchronized int getRatingBy(String userId) {
+        int index = ratings.indexOf(UserIdInterner.find(userId));
+        return index < 0 ? 0 : ratings.ratingAt(index);
     }
 
-    public SkillSeeker(String id, String name, String password, List<String> enrolledSessionNames, List<RequestedSession> myRequestedSessions) {
-        super(id, name, password);
-        if (enrolledSessionNames != null) this.enrolledSessionNames.addAll(enrolledSessionNames);
-        if (myRequestedSessions != null) this.myRequestedSessions.addAll(myRequestedSessions);
+    public synchronized List<SessionRating> getRatings() {
+        List<SessionRating> copy = new ArrayList<>(ratings.size());
+        for (int i = 0; i < ratings.size(); i++) {
+            copy.add(new SessionRating(skillCode, UserIdInterner.idOf(ratings.seekerAt(i)), ratings.ratingAt(i), ratings.ratedAtAt(i)));
+        }
+        return copy;
     }
 
-    public void addResult(Result result) {
-        myResults.removeIf(r -> r.getSkillName().equals(result.getSkillName()));
-        myResults.add(result);
+    // Drops the per-seeker ratings before they are reloaded; legacy totals stay, as they come with the session.
+    void clearRatings() {
+        synchronized (this) {
+            if (ratings.size() == 0) return;
+            ratings.clear();
+            version++;
+        }
+        SessionManager.fireRatingsChanged(this);
     }
 
-    public List<Result> getMyResults() {
-        return new ArrayList<>(myResults);
+    // Listeners are notified after the monitor is released, so they may read the session without deadlocking.
+    public boolean addEnrolledUser(String userId) {
+        long start = System.nanoTime();
+        int ordinal = UserIdInterner.intern(userId);
+        synchronized (this) {
+            if (enrolledUsers.contains(ordinal)) {
+                log.info(() -> "User " + userId + " is already enrolled in " + skillName);
+                rejectedEnrollments.increment();
+                enrollTimer.recordSince(start);
+                return false;
+            }
+            if (isFull()) {
+                log.info(() -> "Session " + skillName + " is full. Cannot enroll user " + userId);
+                rejectedEnrollments.increment();
+                enrollTimer.recordSince(start);
+                return false;
+            }
+            enrolledUsers.add(ordinal);
+            version++;
+        }
+        log.debug(() -> "User " + userId + " enrolled in " + skillName);
+        SessionManager.fireSessionChanged(this);
+        enrollTimer.recordSince(start);
+        return true;
     }
 
-    public List<String> getEnrolledSessionNames() {
-        return new ArrayList<>(enrolledSessionNames);
+    public synchronized double getAverageSkillRating() {
+        int count = legacyRatingCount + ratings.size();
+        return count == 0 ? 0 : (double) (legacyRatingSum + ratings.sum()) / count;
     }
 
-    public List<RequestedSession> getMyRequestedSessions() {
-        return new ArrayList<>(myRequestedSessions);
+    // Average of the per-seeker ratings with each weighted down by half per SessionRatings.HALF_LIFE_MILLIS of
+    // age, so recent ratings dominate. Falls back to the plain average while no seeker has a rating on record.
+    public synchronized double getDecayedSkillRating() {
+        return ratings.size() == 0 ? getAverageSkillRating() : ratings.decayedAverage();
     }
 
-    @Override
-    public void requestSession(String skillName, String timing, int duration) {
-        if (duration <= 0 || duration > 120) {
-            System.out.println("Invalid duration: " + duration + ". Duration must be between 1 and 120 minutes.");
-            return;
-        }
-        RequestedSession newRequest = new RequestedSession(skillName, this.getId(), timing, duration);
-        RequestedSessionManager.addRequest(newRequest);
-        if (!myRequestedSessions.contains(newRequest)) {
-            myRequestedSessions.add(newRequest);
+    // Same text as toString(), rebuilt only when the session has changed since it was last rendered.
+    public synchronized String getSummary() {
+        if (summaryVersion != version) {
+            summary = toString();
+            summaryVersion = version;
         }
-        System.out.println(getName() + " (" + getId() + ") requested a session for '" + skillName + "' at " + timing + " for " + duration + " minutes.");
+        return summary;
     }
 
     @Override
-    public void addSession(String skillName, String timing, int duration) {
-        System.out.println(getName() + " (Skill Seeker) cannot add sessions. Only Skill Providers can add sessions.");
+    public synchronized String toString() {
+        return "Session: " + skillName + " (Code: " + skillCode +
+                ") | Timing: " + skillSlotTiming +
+                " | Instructor: " + skillInstructor +
+                " | Duration: " + sessionDuration + " mins" +
+                " | Enrolled: " + enrolledUsers.size() + "/" + capacity +
+                " | Avg Rating: " + String.format("%.1f", getAverageSkillRating());
     }
+}
 
-    @Override
-    public void enrollInSession(Session session) {
-        if (session != null) {
-            if (!session.isUserEnrolled(this.getId()) && !session.isFull()) {
-                session.addEnrolledUser(this.getId());
-                enrolledSessionNames.add(session.getSkillName());
-                System.out.println(getName() + " successfully enrolled in session: " + session.getSkillName());
-            } else {
-                System.out.println(getName() + " failed to enroll in session: " + session.getSkillName() + ". Already enrolled or session is full.");
+// Fine-grained notifications from SessionManager. Callbacks run on whichever thread made the change, after
+// the manager's and the session's locks are released.
+interface SessionChangeListener {
+    void sessionAdded(Session session);
+    void sessionChanged(Session session);
+    void sessionsCleared();
+}
+
+// Every skill code in use or handed out, with a counter per three-character prefix. allocate() takes the next
+// number for the skill's prefix and claims prefix + number in a concurrent set, so checking a code is one hash
+// lookup and two callers can never get the same code. Codes that arrive from stored data are recorded through
+// SessionManager.addSession(), which also moves their prefix's counter past their number.
+class SkillCodeRegistry {
+    static final int PREFIX_LENGTH = 3;
+
+    private static final Set<String> claimedCodes = ConcurrentHashMap.newKeySet();
+    private static final Map<String, AtomicLong> countersByPrefix = new ConcurrentHashMap<>();
+
+    // A code that is not in use yet: the first letters and digits of the skill name, upper-cased and padded
+    // with X to three characters, followed by a number.
+    public static String allocate(String skillName) {
+        String prefix = prefixFor(skillName);
+        AtomicLong counter = countersByPrefix.computeIfAbsent(prefix, k -> new AtomicLong());
+        while (true) {
+            String code = prefix + counter.incrementAndGet();
+            if (claimedCodes.add(code)) {
+                return code;
             }
-        } else {
-            System.out.println("Cannot enroll: Session object is null.");
         }
     }
 
-    @Override
-    public void rateSession(Session session, int rating) {
-        if (session != null && enrolledSessionNames.contains(session.getSkillName())) {
-            session.addRating(rating);
-            System.out.println(getName() + " rated session '" + session.getSkillName() + "' as " + rating + " stars.");
-        } else {
-            System.out.println(getName() + " cannot rate session '" + (session != null ? session.getSkillName() : "null") + "'. Not enrolled or session not found.");
+    // Records a code that is in use; returns false if it already was.
+    public static boolean claim(String code) {
+        if (!claimedCodes.add(code)) return false;
+        if (code.length() > PREFIX_LENGTH) {
+            try {
+                long number = Long.parseLong(code.substring(PREFIX_LENGTH));
+                countersByPrefix.computeIfAbsent(code.substring(0, PREFIX_LENGTH), k -> new AtomicLong())
+                        .accumulateAndGet(number, Math::max);
+            } catch (NumberFormatException e) {
+                // Not a generated code; it is claimed but doesn't move any counter.
+            }
         }
+        return true;
     }
 
-    @Override
-    public void checkRatings(String skillName) {
-        SessionManager.getSessionBySkillName(skillName).ifPresentOrElse(
-                session -> System.out.println("Current average rating for '" + skillName + "': " + String.format("%.1f", session.getAverageSkillRating())),
-                () -> System.out.println("Session '" + skillName + "' not found to check ratings.")
-        );
+    public static boolean isClaimed(String code) {
+        return claimedCodes.contains(code);
+    }
+
+    public static void clear() {
+        claimedCodes.clear();
+        countersByPrefix.clear();
+    }
+
+    static String prefixFor(String skillName) {
+        StringBuilder prefix = new StringBuilder(PREFIX_LENGTH);
+        for (int i = 0; i < skillName.length() && prefix.length() < PREFIX_LENGTH; i++) {
+            char c = skillName.charAt(i);
+            if (c < 128 && Character.isLetterOrDigit(c)) {
+                prefix.append(Character.toUpperCase(c));
+            }
+        }
+        while (prefix.length() < PREFIX_LENGTH) {
+            prefix.append('X');
+        }
+        return prefix.toString();
     }
 }
 
-class SkillProvider extends AbstractPerson implements SessionActions {
+class SessionManager {
+    private static final Queue<Session> totalSessionData = new ConcurrentLinkedQueue<>();
+    private static final List<SessionChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Secondary indexes over totalSessionData. Skill names are keyed by their normalized form so lookups
+    // keep the case-insensitive behaviour of the old equalsIgnoreCase scan; each bucket keeps insertion order.
+    // Writers lock the stripe of the session's skill name; readers never lock.
+    private static final Map<String, List<Session>> sessionsBySkillName = new ConcurrentHashMap<>();
+    private static final Map<String, List<Session>> sessionsByInstructor = new ConcurrentHashMap<>();
+    private static final Map<String, Session> sessionsBySkillCode = new ConcurrentHashMap<>();
+    private static final StripedLocks locks = new StripedLocks(32);
+    private static final PlatformLog log = PlatformLog.named("sessions");
+    private static final LatencyHistogram addTimer = PlatformMetrics.histogram("sessions.add");
+    private static final LongAdder rejectedAdds = PlatformMetrics.counter("sessions.add.rejected");
+
+    static {
+        PlatformMetrics.gauge("sessions", sessionsBySkillCode::size);
+        PlatformMetrics.gauge("enrollments", () -> {
+            long enrollments = 0;
+            for (Session session : sessionsBySkillCode.values()) {
+                enrollments += session.getCurrentEnrollmentCount();
+            }
+            return enrollments;
+        });
+    }
 
-    public SkillProvider(String name, String password) {
-        super(AbstractPerson.generateUniqueId("provider"), name, password);
+    public static boolean addSession(Session session) {
+        long start = System.nanoTime();
+        String key = normalizeSkillName(session.getSkillName());
+        ReentrantLock lock = locks.forKey(key);
+        lock.lock();
+        try {
+            if (sessionsBySkillCode.putIfAbsent(session.getSkillCode(), session) != null) {
+                log.info(() -> "Session not added: skill code " + session.getSkillCode() + " is already in use.");
+                rejectedAdds.increment();
+                addTimer.recordSince(start);
+                return false;
+            }
+            SkillCodeRegistry.claim(session.getSkillCode());
+            totalSessionData.add(session);
+            sessionsBySkillName.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(session);
+            sessionsByInstructor.computeIfAbsent(session.getSkillInstructor(), k -> new CopyOnWriteArrayList<>()).add(session);
+        } finally {
+            lock.unlock();
+        }
+        DataDomain.SESSIONS.markChanged();
+        PlatformJournal.append(JournalRecord.Type.ADD_SESSION, session.getSkillName(), session.getSkillCode(),
+                session.getSkillSlotTiming(), session.getSkillInstructor(), String.valueOf(session.getSessionDuration()),
+                String.valueOf(session.getCapacity()));
+        log.debug(() -> "Session added successfully: " + session.getSkillName());
+        for (SessionChangeListener listener : listeners) {
+            listener.sessionAdded(session);
+        }
+        addTimer.recordSince(start);
+        return true;
     }
 
-    public SkillProvider(String id, String name, String password) {
-        super(id, name, password);
+    public static void addListener(SessionChangeListener listener) {
+        listeners.add(listener);
     }
 
-    @Override
-    public void requestSession(String skillName, String timing, int duration) {
-        System.out.println(getName() + " (Skill Provider) cannot request sessions. Only Skill Seekers can request sessions.");
+    public static void removeListener(SessionChangeListener listener) {
+        listeners.remove(listener);
     }
 
-    @Override
-    public void addSession(String skillName, String timing, int duration) {
-        String skillCode = skillName.substring(0, Math.min(skillName.length(), 3)).toUpperCase() + (System.currentTimeMillis() % 10000);
-        Session newSession = new Session(skillName, skillCode, timing, this.getName(), duration);
-        SessionManager.addSession(newSession);
-        System.out.println(getName() + " added a new session: " + newSession.getSkillName());
+    // Called by Session after an enrollment, rating or capacity change.
+    static void fireSessionChanged(Session session) {
+        DataDomain.SESSIONS.markChanged();
+        notifySessionChanged(session);
+    }
+
+    // Ratings are stored in their own domain, so a rating leaves the encoded sessions section as it is.
+    static void fireRatingsChanged(Session session) {
+        DataDomain.RATINGS.markChanged();
+        notifySessionChanged(session);
+    }
+
+    private static void notifySessionChanged(Session session) {
+        for (SessionChangeListener listener : listeners) {
+            listener.sessionChanged(session);
+        }
+    }
+
+    public static List<Session> getAllSessions() {
+        return new ArrayList<>(totalSessionData);
+    }
+
+    public static Optional<Session> getSessionBySkillName(String skillName) {
+        if (skillName == null) return Optional.empty();
+        List<Session> matches = sessionsBySkillName.get(normalizeSkillName(skillName));
+        return matches == null || matches.isEmpty() ? Optional.empty() : Optional.of(matches.get(0));
+    }
+
+    public static List<Session> getSessionsBySkillName(String skillName) {
+        if (skillName == null) return new ArrayList<>();
+        return new ArrayList<>(sessionsBySkillName.getOrDefault(normalizeSkillName(skillName), Collections.emptyList()));
+    }
+
+    public static List<Session> getSessionsByInstructor(String instructorName) {
+        return new ArrayList<>(sessionsByInstructor.getOrDefault(instructorName, Collections.emptyList()));
+    }
+
+    public static Optional<Session> getSessionBySkillCode(String skillCode) {
+        if (skillCode == null) return Optional.empty();
+        return Optional.ofNullable(sessionsBySkillCode.get(skillCode));
+    }
+
+    public static boolean isSkillCodeInUse(String skillCode) {
+        return skillCode != null && sessionsBySkillCode.containsKey(skillCode);
+    }
+
+    public static void clearAllSessions() {
+        locks.lockAll();
+        try {
+            totalSessionData.clear();
+            sessionsBySkillName.clear();
+            sessionsByInstructor.clear();
+            sessionsBySkillCode.clear();
+            SkillCodeRegistry.clear();
+            SkillAnalytics.clearRatings();
+        } finally {
+            locks.unlockAll();
+        }
+        DataDomain.SESSIONS.markChanged();
+        for (SessionChangeListener listener : listeners) {
+            listener.sessionsCleared();
+        }
+    }
+
+    // Applies a stored rating to its session; ratings for sessions that no longer exist are dropped.
+    public static void restoreRating(SessionRating rating) {
+        getSessionBySkillCode(rating.getSkillCode()).ifPresentOrElse(
+                session -> session.rate(rating.getSeekerId(), rating.getRating(), rating.getRatedAt()),
+                () -> log.debug(() -> "Dropping rating for unknown session " + rating.getSkillCode()));
+    }
+
+    public static List<SessionRating> getAllRatings() {
+        List<SessionRating> all = new ArrayList<>();
+        for (Session session : totalSessionData) {
+            all.addAll(session.getRatings());
+        }
+        return all;
+    }
+
+    public static void clearAllRatings() {
+        for (Session session : totalSessionData) {
+            session.clearRatings();
+        }
+        SkillAnalytics.clearRatings();
+        DataDomain.RATINGS.markChanged();
+    }
+
+    public static String normalizeSkillName(String skillName) {
+        return skillName.trim().toLowerCase(Locale.ROOT);
+    }
+}
+
+// Inverted index over each session's skill name, skill code, instructor and timing, kept current through
+// SessionManager's change events. Every word is indexed under its leading characters (up to MAX_PREFIX) for
+// type-ahead prefix matches and under its trigrams for matches inside a word. Postings are int arrays of
+// document numbers in insertion order, so multi-word queries intersect them with a linear merge. Rating and
+// free places change all the time and are read live at query time rather than indexed.
+class SessionSearchIndex implements SessionChangeListener {
+    static final int MAX_PREFIX = 12;
+
+    private final List<Session> documents = new ArrayList<>();
+    // Each document's searchable words, lowercased and joined with a leading space, for verifying candidates.
+    private final List<String> documentTexts = new ArrayList<>();
+    private final Map<Session, Integer> documentBySession = new IdentityHashMap<>();
+    private final Map<String, Postings> prefixPostings = new HashMap<>();
+    private final Map<String, Postings> trigramPostings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SessionSearchIndex() {
+        // Register before the initial pass so nothing added meanwhile is missed; sessions are only indexed once.
+        SessionManager.addListener(this);
+        SessionManager.getAllSessions().forEach(this::sessionAdded);
+    }
+
+    @Override
+    public void sessionAdded(Session session) {
+        String text = " " + String.join(" ", tokenize(session.getSkillName() + " " + session.getSkillCode() + " "
+                + session.getSkillInstructor() + " " + session.getSkillSlotTiming()));
+        lock.writeLock().lock();
+        try {
+            if (documentBySession.containsKey(session)) return;
+            int document = documents.size();
+            documents.add(session);
+            documentTexts.add(text);
+            documentBySession.put(session, document);
+            for (String token : tokenize(text)) {
+                for (int length = 1; length <= Math.min(token.length(), MAX_PREFIX); length++) {
+                    prefixPostings.computeIfAbsent(token.substring(0, length), k -> new Postings()).add(document);
+                }
+                for (int start = 0; start + 3 <= token.length(); start++) {
+                    trigramPostings.computeIfAbsent(token.substring(start, start + 3), k -> new Postings()).add(document);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The indexed fields never change after a session is created.
+    @Override
+    public void sessionChanged(Session session) {
+    }
+
+    @Override
+    public void sessionsCleared() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            documentTexts.clear();
+            documentBySession.clear();
+            prefixPostings.clear();
+            trigramPostings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Every query word must match, as the start of a word (ranked higher) or anywhere inside one; words of
+    // fewer than three characters only match as prefixes. Results are ordered by match quality, then average
+    // rating, then free places. A blank query lists every session in that order. Pages are numbered from 0.
+    public SearchPage search(String query, boolean openOnly, int page, int pageSize) {
+        List<String> terms = tokenize(query);
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int[] candidates = null;
+            for (String term : terms) {
+                int[] termCandidates = candidatesFor(term);
+                candidates = candidates == null ? termCandidates : Postings.intersect(candidates, termCandidates);
+                if (candidates.length == 0) break;
+            }
+            int count = candidates == null ? documents.size() : candidates.length;
+            for (int i = 0; i < count; i++) {
+                int document = candidates == null ? i : candidates[i];
+                String text = documentTexts.get(document);
+                int score = 0;
+                for (String term : terms) {
+                    if (text.contains(" " + term)) {
+                        score += 2;
+                    } else if (term.length() >= 3 && text.contains(term)) {
+                        score += 1;
+                    } else {
+                        score = -1;
+                        break;
+                    }
+                }
+                Session session = documents.get(document);
+                if (score >= 0 && !(openOnly && session.isFull())) {
+                    matches.add(new Match(session, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Comparator<Match> ranking = Comparator.comparingInt((Match match) -> match.score).reversed()
+                .thenComparing(Comparator.comparingDouble((Match match) -> match.rating).reversed())
+                .thenComparing(Comparator.comparingInt((Match match) -> match.freePlaces).reversed());
+        int from = Math.max(0, page) * pageSize;
+        List<Session> pageResults = new ArrayList<>();
+        if (from < matches.size()) {
+            // Only the requested page needs ordering: keep the best from+pageSize matches, then sort those.
+            int limit = Math.min(matches.size(), from + pageSize);
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+            for (Match match : matches) {
+                best.add(match);
+                if (best.size() > limit) best.poll();
+            }
+            List<Match> top = new ArrayList<>(best);
+            top.sort(ranking);
+            for (Match match : top.subList(from, limit)) {
+                pageResults.add(match.session);
+            }
+        }
+        return new SearchPage(pageResults, matches.size(), Math.max(0, page), pageSize);
+    }
+
+    // A matching session with the values it is ranked by, read once: sessions keep changing on the platform
+    // thread while a search runs, and ranking on live values could order the same pair differently mid-sort.
+    private static final class Match {
+        final Session session;
+        final int score;
+        final double rating;
+        final int freePlaces;
+
+        Match(Session session, int score) {
+            this.session = session;
+            this.score = score;
+            this.rating = session.getAverageSkillRating();
+            this.freePlaces = session.getCapacity() - session.getCurrentEnrollmentCount();
+        }
+    }
+
+    private int[] candidatesFor(String term) {
+        Postings prefix = prefixPostings.get(term.length() > MAX_PREFIX ? term.substring(0, MAX_PREFIX) : term);
+        int[] candidates = prefix == null ? new int[0] : prefix.toArray();
+        if (term.length() >= 3) {
+            int[] inner = null;
+            for (int start = 0; start + 3 <= term.length(); start++) {
+                Postings trigram = trigramPostings.get(term.substring(start, start + 3));
+                inner = trigram == null ? new int[0] : inner == null ? trigram.toArray() : Postings.intersect(inner, trigram.toArray());
+                if (inner.length == 0) break;
+            }
+            candidates = Postings.union(candidates, inner);
+        }
+        return candidates;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Growable, ascending list of document numbers. A document adds each key once, but a word can repeat
+    // within one document, so consecutive duplicates are skipped.
+    static class Postings {
+        private int[] documents = new int[4];
+        private int size;
+
+        void add(int document) {
+            if (size > 0 && documents[size - 1] == document) return;
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(documents, size);
+        }
+
+        static int[] intersect(int[] a, int[] b) {
+            int[] result = new int[Math.min(a.length, b.length)];
+            int i = 0, j = 0, n = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) i++;
+                else if (a[i] > b[j]) j++;
+                else { result[n++] = a[i]; i++; j++; }
+            }
+            return Arrays.copyOf(result, n);
+        }
+
+        static int[] union(int[] a, int[] b) {
+            int[] result = new int[a.length + b.length];
+            int i = 0, j = 0, n = 0;
+            while (i < a.length || j < b.length) {
+                if (j >= b.length || (i < a.length && a[i] < b[j])) result[n++] = a[i++];
+                else if (i >= a.length || b[j] < a[i]) result[n++] = b[j++];
+                else { result[n++] = a[i]; i++; j++; }
+            }
+            return Arrays.copyOf(result, n);
+        }
+    }
+}
+
+class SearchPage {
+    private final List<Session> results;
+    private final int totalMatches;
+    private final int page;
+    private final int pageSize;
+
+    SearchPage(List<Session> results, int totalMatches, int page, int pageSize) {
+        this.results = results;
+        this.totalMatches = totalMatches;
+        this.page = page;
+        this.pageSize = pageSize;
+    }
+
+    public List<Session> getResults() { return results; }
+    public int getTotalMatches() { return totalMatches; }
+    public int getPage() { return page; }
+    public int getPageCount() { return Math.max(1, (totalMatches + pageSize - 1) / pageSize); }
+}
+
+enum RequestStatus {
+    PENDING, FULFILLED, DENIED;
+
+    // A request is decided exactly once: PENDING may move to FULFILLED or DENIED, and both are final.
+    public boolean canTransitionTo(RequestStatus next) {
+        return this == PENDING && next != PENDING;
+    }
+
+    // Reads a stored status; legacy free-text values that don't name a status are treated as PENDING.
+    public static RequestStatus parse(String value) {
+        if (value != null) {
+            for (RequestStatus status : values()) {
+                if (status.name().equalsIgnoreCase(value.trim())) return status;
+            }
+        }
+        return PENDING;
+    }
+}
+
+class RequestedSession {
+    private String skillName;
+    private String requestedByUserId;
+    private String timing;
+    private int duration;
+    private volatile RequestStatus status;
+    private long arrivalSequence;
+
+    public RequestedSession(String skillName, String requestedByUserId, String timing, int duration) {
+        this.skillName = skillName;
+        this.requestedByUserId = requestedByUserId;
+        this.timing = timing;
+        this.duration = duration;
+        this.status = RequestStatus.PENDING;
+    }
+
+    public String getSkillName() { return skillName; }
+    public String getRequestedByUserId() { return requestedByUserId; }
+    public String getTiming() { return timing; }
+    public int getDuration() { return duration; }
+    public RequestStatus getStatus() { return status; }
+
+    // Only for restoring stored requests; live status changes go through transitionTo().
+    void setStatus(RequestStatus status) { this.status = status; }
+
+    synchronized void transitionTo(RequestStatus next) {
+        if (!status.canTransitionTo(next)) {
+            throw new IllegalStateException("Request for '" + skillName + "' by " + requestedByUserId + " cannot move from " + status + " to " + next);
+        }
+        status = next;
+    }
+
+    long getArrivalSequence() { return arrivalSequence; }
+    void setArrivalSequence(long arrivalSequence) { this.arrivalSequence = arrivalSequence; }
+
+    @Override
+    public String toString() {
+        return "Request: " + skillName + " by " + requestedByUserId + " (Timing: " + timing + ", Duration: " + duration + " mins, Status: " + status + ")";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RequestedSession that = (RequestedSession) o;
+        return Objects.equals(skillName, that.skillName) &&
+                Objects.equals(requestedByUserId, that.requestedByUserId) &&
+                Objects.equals(timing, that.timing) &&
+                duration == that.duration;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(skillName, requestedByUserId, timing, duration);
+    }
+}
+
+// Pending requests live in one insertion-ordered map per normalized skill name: a FIFO queue for that skill
+// with O(1) duplicate checks and removal. A map rather than a LinkedHashSet so that fulfilling or denying an
+// equal copy (e.g. one rebuilt from the journal) resolves to the stored instance. Each skill's map is guarded
+// by that skill's stripe lock. Decided requests move to the history and are kept for reporting.
+class RequestedSessionManager {
+    private static final Map<String, LinkedHashMap<RequestedSession, RequestedSession>> pendingBySkill = new ConcurrentHashMap<>();
+    private static final NavigableMap<Long, RequestedSession> pendingByArrival = new ConcurrentSkipListMap<>();
+    private static final Queue<RequestedSession> history = new ConcurrentLinkedQueue<>();
+    private static final Map<String, Queue<RequestedSession>> requestsBySeeker = new ConcurrentHashMap<>();
+    private static final AtomicLong arrivalSequence = new AtomicLong();
+    private static final StripedLocks locks = new StripedLocks(16);
+    private static final PlatformLog log = PlatformLog.named("requests");
+    private static final LatencyHistogram addTimer = PlatformMetrics.histogram("requests.add");
+    private static final LatencyHistogram closeTimer = PlatformMetrics.histogram("requests.close");
+    private static final LongAdder duplicateRequests = PlatformMetrics.counter("requests.add.duplicate");
+
+    static {
+        PlatformMetrics.gauge("requests.pending", pendingByArrival::size);
+    }
+
+    // Adds a pending request unless an equal one is already pending. Requests that are already decided (when
+    // restoring stored data) go straight to the history.
+    public static boolean addRequest(RequestedSession request) {
+        long start = System.nanoTime();
+        if (request.getStatus() != RequestStatus.PENDING) {
+            history.add(request);
+            indexBySeeker(request);
+            DataDomain.REQUESTS.markChanged();
+            addTimer.recordSince(start);
+            return true;
+        }
+        String key = SessionManager.normalizeSkillName(request.getSkillName());
+        ReentrantLock lock = locks.forKey(key);
+        lock.lock();
+        try {
+            LinkedHashMap<RequestedSession, RequestedSession> queue = pendingBySkill.computeIfAbsent(key, k -> new LinkedHashMap<>());
+            if (queue.putIfAbsent(request, request) != null) {
+                log.info(() -> "Request for '" + request.getSkillName() + "' by " + request.getRequestedByUserId() + " already exists.");
+                duplicateRequests.increment();
+                addTimer.recordSince(start);
+                return false;
+            }
+            request.setArrivalSequence(arrivalSequence.incrementAndGet());
+            pendingByArrival.put(request.getArrivalSequence(), request);
+            indexBySeeker(request);
+        } finally {
+            lock.unlock();
+        }
+        DataDomain.REQUESTS.markChanged();
+        PlatformJournal.append(JournalRecord.Type.ADD_REQUEST, request.getSkillName(), request.getRequestedByUserId(),
+                request.getTiming(), String.valueOf(request.getDuration()));
+        log.debug(() -> "Request added: " + request.getSkillName());
+        addTimer.recordSince(start);
+        return true;
+    }
+
+    private static void indexBySeeker(RequestedSession request) {
+        requestsBySeeker.computeIfAbsent(request.getRequestedByUserId(), k -> new ConcurrentLinkedQueue<>()).add(request);
+    }
+
+    public static Optional<RequestedSession> fulfillRequest(RequestedSession request) {
+        return closeRequest(request, RequestStatus.FULFILLED);
+    }
+
+    public static Optional<RequestedSession> denyRequest(RequestedSession request) {
+        return closeRequest(request, RequestStatus.DENIED);
+    }
+
+    // Moves the stored pending request equal to the given one into the history with the new status. Returns
+    // the stored instance, or empty if no such request is pending.
+    private static Optional<RequestedSession> closeRequest(RequestedSession request, RequestStatus status) {
+        long start = System.nanoTime();
+        String key = SessionManager.normalizeSkillName(request.getSkillName());
+        ReentrantLock lock = locks.forKey(key);
+        RequestedSession stored;
+        lock.lock();
+        try {
+            LinkedHashMap<RequestedSession, RequestedSession> queue = pendingBySkill.get(key);
+            stored = queue == null ? null : queue.remove(request);
+            if (stored == null) {
+                closeTimer.recordSince(start);
+                return Optional.empty();
+            }
+            if (queue.isEmpty()) {
+                pendingBySkill.remove(key);
+            }
+            pendingByArrival.remove(stored.getArrivalSequence());
+            stored.transitionTo(status);
+            history.add(stored);
+        } finally {
+            lock.unlock();
+        }
+        DataDomain.REQUESTS.markChanged();
+        PlatformJournal.append(JournalRecord.Type.SET_REQUEST_STATUS, stored.getSkillName(), stored.getRequestedByUserId(),
+                stored.getTiming(), String.valueOf(stored.getDuration()), status.name());
+        log.info(() -> "Request " + status.name().toLowerCase(Locale.ROOT) + ": " + stored.getSkillName());
+        closeTimer.recordSince(start);
+        return Optional.of(stored);
+    }
+
+    // Pending requests across all skills, oldest first.
+    public static List<RequestedSession> getPendingRequests() {
+        return new ArrayList<>(pendingByArrival.values());
+    }
+
+    // Pending requests for one skill in arrival order, without looking at any other skill.
+    public static List<RequestedSession> getPendingRequestsForSkill(String skillName) {
+        String key = SessionManager.normalizeSkillName(skillName);
+        ReentrantLock lock = locks.forKey(key);
+        lock.lock();
+        try {
+            LinkedHashMap<RequestedSession, RequestedSession> queue = pendingBySkill.get(key);
+            return queue == null ? new ArrayList<>() : new ArrayList<>(queue.keySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static int getPendingCount() {
+        return pendingByArrival.size();
+    }
+
+    public static List<RequestedSession> getRequestHistory() {
+        return new ArrayList<>(history);
+    }
+
+    public static List<RequestedSession> getRequestsForSeeker(String seekerId) {
+        return new ArrayList<>(requestsBySeeker.getOrDefault(seekerId, new ConcurrentLinkedQueue<>()));
+    }
+
+    // Pending and decided requests together, as persisted.
+    public static List<RequestedSession> getAllRequests() {
+        List<RequestedSession> all = getPendingRequests();
+        all.addAll(history);
+        return all;
+    }
+
+    public static void clearRequests() {
+        locks.lockAll();
+        try {
+            pendingBySkill.clear();
+            pendingByArrival.clear();
+            history.clear();
+            requestsBySeeker.clear();
+        } finally {
+            locks.unlockAll();
+        }
+        DataDomain.REQUESTS.markChanged();
+    }
+}
+
+// A group of pending requests for the same skill at a compatible time, in arrival order. The proposed session
+// takes the earliest request's timing and the longest requested duration so every requester is covered.
+class DemandCluster {
+    private final String skillName;
+    private final String timing;
+    private final int duration;
+    private final List<RequestedSession> requests;
+
+    DemandCluster(List<RequestedSession> requests) {
+        RequestedSession first = requests.get(0);
+        this.skillName = first.getSkillName().trim();
+        this.timing = first.getTiming();
+        this.duration = requests.stream().mapToInt(RequestedSession::getDuration).max().orElse(first.getDuration());
+        this.requests = Collections.unmodifiableList(requests);
+    }
+
+    public String getSkillName() { return skillName; }
+    public String getTiming() { return timing; }
+    public int getDuration() { return duration; }
+    public List<RequestedSession> getRequests() { return requests; }
+    public int getDemand() { return requests.size(); }
+
+    @Override
+    public String toString() {
+        return skillName + " (Timing: " + timing + ", Duration: " + duration + " mins) - " + requests.size() + " request(s)";
+    }
+}
+
+// Groups pending requests into clusters a single session could serve: same normalized skill name, same day and
+// starting hour, and durations in the same 30-minute band. Clusters are ranked by demand, then by how long their
+// oldest request has been waiting.
+class DemandAggregator {
+    static final int DURATION_BAND_MINUTES = 30;
+    private static final String[] DAYS = {"mon", "tue", "wed", "thu", "fri", "sat", "sun"};
+
+    public static List<DemandCluster> aggregate() {
+        return aggregate(RequestedSessionManager.getPendingRequests());
+    }
+
+    // Requests are expected oldest first, as RequestedSessionManager returns them.
+    public static List<DemandCluster> aggregate(Collection<RequestedSession> pendingRequests) {
+        Map<String, List<RequestedSession>> groups = new LinkedHashMap<>();
+        for (RequestedSession request : pendingRequests) {
+            String key = SessionManager.normalizeSkillName(request.getSkillName()) + "|" + timingWindow(request.getTiming())
+                    + "|" + durationBand(request.getDuration());
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(request);
+        }
+        // LinkedHashMap keeps groups in order of their oldest request, and the sort is stable, so ties stay oldest first.
+        List<DemandCluster> clusters = new ArrayList<>(groups.size());
+        for (List<RequestedSession> group : groups.values()) {
+            clusters.add(new DemandCluster(group));
+        }
+        clusters.sort(Comparator.comparingInt(DemandCluster::getDemand).reversed());
+        return clusters;
+    }
+
+    public static List<DemandCluster> aggregateForSkill(String skillName) {
+        return aggregate(RequestedSessionManager.getPendingRequestsForSkill(skillName));
+    }
+
+    static int durationBand(int duration) {
+        return Math.max(0, duration - 1) / DURATION_BAND_MINUTES;
+    }
+
+    // Reduces free-text timings such as "Mon 10am", "monday 10:30 AM" or "Mon 14:00" to "day@hour". Timings that
+    // don't parse fall back to their normalized text, so they only group with identical timings.
+    static String timingWindow(String timing) {
+        String normalized = timing == null ? "" : timing.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        String day = null;
+        int hour = -1;
+        for (String token : normalized.split("[ ,]")) {
+            if (token.isEmpty()) continue;
+            if (day == null && token.length() >= 3 && Arrays.asList(DAYS).contains(token.substring(0, 3))) {
+                day = token.substring(0, 3);
+            } else if (hour < 0 && Character.isDigit(token.charAt(0))) {
+                hour = parseHour(token, normalized);
+            }
+        }
+        if (day == null || hour < 0) {
+            return normalized;
+        }
+        return day + "@" + hour;
+    }
+
+    private static int parseHour(String token, String timing) {
+        int end = 0;
+        while (end < token.length() && Character.isDigit(token.charAt(end))) end++;
+        int hour;
+        try {
+            hour = Integer.parseInt(token.substring(0, end));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        boolean pm = token.endsWith("pm") || (!token.endsWith("am") && timing.contains(token + " pm"));
+        boolean am = token.endsWith("am") || timing.contains(token + " am");
+        if (pm && hour < 12) hour += 12;
+        if (am && hour == 12) hour = 0;
+        return hour < 24 ? hour : -1;
+    }
+}
+
+class Result {
+    private String seekerId;
+    private String skillName;
+    private int marks;
+
+    public Result(String seekerId, String skillName, int marks) {
+        this.seekerId = seekerId;
+        this.skillName = skillName;
+        this.marks = marks;
+    }
+
+    public String getSeekerId() { return seekerId; }
+    public String getSkillName() { return skillName; }
+    public int getMarks() { return marks; }
+
+    @Override
+    public String toString() {
+        return "Skill: " + skillName + " - Marks: " + marks;
+    }
+}
+
+// Results are indexed twice: seeker -> skill -> result for a seeker's transcript, and skill -> seeker -> result
+// for everyone who attempted a skill. Skill keys are normalized skill names. An upsert replaces the entry in
+// both maps under the skill's stripe lock, so the two indexes never disagree.
+class ResultManager {
+    private static final Map<String, Map<String, Result>> resultsBySeeker = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, Result>> resultsBySkill = new ConcurrentHashMap<>();
+    private static final StripedLocks locks = new StripedLocks(16);
+    private static final PlatformLog log = PlatformLog.named("results");
+    private static final LatencyHistogram addTimer = PlatformMetrics.histogram("results.add");
+
+    public static void addResult(Result result) {
+        long start = System.nanoTime();
+        String skillKey = SessionManager.normalizeSkillName(result.getSkillName());
+        ReentrantLock lock = locks.forKey(skillKey);
+        lock.lock();
+        try {
+            resultsBySeeker.computeIfAbsent(result.getSeekerId(), k -> new ConcurrentHashMap<>()).put(skillKey, result);
+            Result previous = resultsBySkill.computeIfAbsent(skillKey, k -> new ConcurrentHashMap<>()).put(result.getSeekerId(), result);
+            SkillAnalytics.resultRecorded(previous, result);
+        } finally {
+            lock.unlock();
+        }
+        DataDomain.RESULTS.markChanged();
+        PlatformJournal.append(JournalRecord.Type.ADD_RESULT, result.getSeekerId(), result.getSkillName(), String.valueOf(result.getMarks()));
+        log.debug(() -> "Result added/updated: " + result.getSeekerId() + " - " + result.getSkillName() + ": " + result.getMarks());
+        addTimer.recordSince(start);
+    }
+
+    public static List<Result> getResultsForSeeker(String seekerId) {
+        return new ArrayList<>(resultsBySeeker.getOrDefault(seekerId, Collections.emptyMap()).values());
+    }
+
+    // Live read-only view of a seeker's results; it always reflects the current index, including results
+    // added after the view was created.
+    public static Collection<Result> getResultsViewForSeeker(String seekerId) {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Result> iterator() {
+                return Collections.unmodifiableCollection(
+                        resultsBySeeker.getOrDefault(seekerId, Collections.emptyMap()).values()).iterator();
+            }
+
+            @Override
+            public int size() {
+                return resultsBySeeker.getOrDefault(seekerId, Collections.emptyMap()).size();
+            }
+        };
+    }
+
+    public static Optional<Result> getResultForSeekerAndSkill(String seekerId, String skillName) {
+        Map<String, Result> seekerResults = resultsBySeeker.get(seekerId);
+        return seekerResults == null ? Optional.empty() : Optional.ofNullable(seekerResults.get(SessionManager.normalizeSkillName(skillName)));
+    }
+
+    public static List<Result> getResultsForSkill(String skillName) {
+        return new ArrayList<>(resultsBySkill.getOrDefault(SessionManager.normalizeSkillName(skillName), Collections.emptyMap()).values());
+    }
+
+    public static List<Result> getAllResults() {
+        List<Result> results = new ArrayList<>();
+        resultsBySeeker.values().forEach(seekerResults -> results.addAll(seekerResults.values()));
+        return results;
+    }
+
+    public static void clearAllResults() {
+        locks.lockAll();
+        try {
+            resultsBySeeker.clear();
+            resultsBySkill.clear();
+            SkillAnalytics.clearResults();
+        } finally {
+            locks.unlockAll();
+        }
+        DataDomain.RESULTS.markChanged();
+    }
+}
+
+// Running aggregates over integer scores in a fixed range: a count per value plus the count, sum and sum of
+// squares, so mean and variance are exact and a score can be taken out again as easily as it was put in. With
+// a range of at most a few hundred values the per-value counts are an exact quantile sketch; every read walks
+// the range, never the scores, so its cost doesn't grow with how many were recorded. Scores outside the range
+// are counted at its nearest end.
+final class ScoreDistribution {
+    private final int min;
+    private final long[] counts;
+    private long count;
+    private long sum;
+    private long sumOfSquares;
+
+    ScoreDistribution(int min, int max) {
+        this.min = min;
+        this.counts = new long[max - min + 1];
+    }
+
+    public synchronized void add(int score) {
+        int value = clamp(score);
+        counts[value - min]++;
+        count++;
+        sum += value;
+        sumOfSquares += (long) value * value;
+    }
+
+    // Takes out a score that was added before; removing one that never was is ignored.
+    public synchronized void remove(int score) {
+        int value = clamp(score);
+        if (counts[value - min] == 0) return;
+        counts[value - min]--;
+        count--;
+        sum -= value;
+        sumOfSquares -= (long) value * value;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        sumOfSquares = 0;
+    }
+
+    public synchronized Summary summary() {
+        return new Summary(min, counts.clone(), count, sum, sumOfSquares);
+    }
+
+    private int clamp(int score) {
+        return Math.max(min, Math.min(min + counts.length - 1, score));
+    }
+
+    // A consistent copy of the aggregates at one point in time.
+    static final class Summary {
+        private final int min;
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long sumOfSquares;
+
+        private Summary(int min, long[] counts, long count, long sum, long sumOfSquares) {
+            this.min = min;
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.sumOfSquares = sumOfSquares;
+        }
+
+        public long getCount() { return count; }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        // Population variance, from the integer sums so no precision is lost as scores come and go.
+        public double getVariance() {
+            if (count == 0) return 0;
+            double mean = getMean();
+            return Math.max(0, (double) sumOfSquares / count - mean * mean);
+        }
+
+        public double getStandardDeviation() {
+            return Math.sqrt(getVariance());
+        }
+
+        public long getCountOf(int score) {
+            int index = score - min;
+            return index < 0 || index >= counts.length ? 0 : counts[index];
+        }
+
+        public long getCountAtLeast(int score) {
+            long atLeast = 0;
+            for (int i = Math.max(0, score - min); i < counts.length; i++) {
+                atLeast += counts[i];
+            }
+            return atLeast;
+        }
+
+        // The lowest score with at least the given percentage (0-100) of scores at or below it.
+        public int getValueAtPercentile(double percentile) {
+            if (count == 0) return min;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return min + i;
+            }
+            return min + counts.length - 1;
+        }
+
+        // Counts per band of the given width, starting at the lowest score; the last band may be narrower.
+        public long[] getBuckets(int width) {
+            long[] buckets = new long[(counts.length + width - 1) / width];
+            for (int i = 0; i < counts.length; i++) {
+                buckets[i / width] += counts[i];
+            }
+            return buckets;
+        }
+    }
+}
+
+// Ratings per day over a sliding window of days, in a ring indexed by day number. A slot still holding an
+// older day is reset when its day comes round again, so recording and reading are both bounded by the window.
+final class RatingTrend {
+    static final int DAYS = 28;
+
+    private final long[] days = new long[DAYS];
+    private final long[] counts = new long[DAYS];
+    private final long[] sums = new long[DAYS];
+
+    RatingTrend() {
+        Arrays.fill(days, Long.MIN_VALUE);
+    }
+
+    public synchronized void add(int rating, long epochDay) {
+        int slot = (int) Math.floorMod(epochDay, (long) DAYS);
+        if (days[slot] != epochDay) {
+            if (days[slot] > epochDay) return; // older than the window
+            days[slot] = epochDay;
+            counts[slot] = 0;
+            sums[slot] = 0;
+        }
+        counts[slot]++;
+        sums[slot] += rating;
+    }
+
+    // Takes back a rating added for that day, if the day is still in the window.
+    public synchronized void remove(int rating, long epochDay) {
+        int slot = (int) Math.floorMod(epochDay, (long) DAYS);
+        if (days[slot] != epochDay || counts[slot] == 0) return;
+        counts[slot]--;
+        sums[slot] -= rating;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(days, Long.MIN_VALUE);
+        Arrays.fill(counts, 0);
+        Arrays.fill(sums, 0);
+    }
+
+    // The average rating on each of the given number of days up to and including today, oldest first; days
+    // without ratings are NaN.
+    public synchronized double[] dailyAverages(long today, int dayCount) {
+        double[] averages = new double[Math.min(dayCount, DAYS)];
+        for (int i = 0; i < averages.length; i++) {
+            long day = today - averages.length + 1 + i;
+            int slot = (int) Math.floorMod(day, (long) DAYS);
+            averages[i] = days[slot] == day && counts[slot] > 0 ? (double) sums[slot] / counts[slot] : Double.NaN;
+        }
+        return averages;
+    }
+}
+
+// Per-skill aggregates for the provider analytics tab, kept current as results and ratings arrive rather than
+// computed from ResultManager's indexes on demand. Result marks are the quiz percentages. Both results and
+// ratings are upserts per seeker, so a replaced mark or rating is taken out before the new one goes in. Ratings
+// are counted as Session.rate() records them, which includes the stored ratings as they load; legacy rating
+// totals without a seeker only show in the session's own average. Skill keys are normalized skill names.
+class SkillAnalytics {
+    static final int PASS_MARK = 50;
+
+    private static final Map<String, SkillStats> statsBySkill = new ConcurrentHashMap<>();
+
+    private static final class SkillStats {
+        final ScoreDistribution marks = new ScoreDistribution(0, 100);
+        final ScoreDistribution ratings = new ScoreDistribution(1, 5);
+        final RatingTrend ratingTrend = new RatingTrend();
+    }
+
+    private static SkillStats statsFor(String skillName) {
+        return statsBySkill.computeIfAbsent(SessionManager.normalizeSkillName(skillName), k -> new SkillStats());
+    }
+
+    // Called by ResultManager under the skill's lock, with the result this one replaced, if any.
+    static void resultRecorded(Result previous, Result current) {
+        ScoreDistribution marks = statsFor(current.getSkillName()).marks;
+        if (previous != null) {
+            marks.remove(previous.getMarks());
+        }
+        marks.add(current.getMarks());
+    }
+
+    // Called by Session.rate() under the session's monitor, with the rating it replaced, or 0 if the seeker
+    // hadn't rated the session before.
+    static void ratingRecorded(String skillName, int previous, long previousAtMillis, int rating, long ratedAtMillis) {
+        SkillStats stats = statsFor(skillName);
+        if (previous != 0) {
+            stats.ratings.remove(previous);
+            stats.ratingTrend.remove(previous, epochDay(previousAtMillis));
+        }
+        stats.ratings.add(rating);
+        stats.ratingTrend.add(rating, epochDay(ratedAtMillis));
+    }
+
+    private static long epochDay(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    public static ScoreDistribution.Summary getResultSummary(String skillName) {
+        SkillStats stats = statsBySkill.get(SessionManager.normalizeSkillName(skillName));
+        return (stats != null ? stats.marks : new ScoreDistribution(0, 100)).summary();
+    }
+
+    public static ScoreDistribution.Summary getRatingSummary(String skillName) {
+        SkillStats stats = statsBySkill.get(SessionManager.normalizeSkillName(skillName));
+        return (stats != null ? stats.ratings : new ScoreDistribution(1, 5)).summary();
+    }
+
+    public static double[] getRatingTrend(String skillName, int days) {
+        SkillStats stats = statsBySkill.get(SessionManager.normalizeSkillName(skillName));
+        return (stats != null ? stats.ratingTrend : new RatingTrend()).dailyAverages(LocalDate.now().toEpochDay(), days);
+    }
+
+    static void clearResults() {
+        statsBySkill.values().forEach(stats -> stats.marks.clear());
+    }
+
+    static void clearRatings() {
+        statsBySkill.values().forEach(stats -> {
+            stats.ratings.clear();
+            stats.ratingTrend.clear();
+        });
+    }
+}
+
+class SkillSeeker extends AbstractPerson implements SessionActions {
+    private final List<String> enrolledSessionNames = new CopyOnWriteArrayList<>();
+
+    public SkillSeeker(String name, String passwordHash) {
+        super(IdAllocator.next("seeker"), name, passwordHash);
+    }
+
+    public SkillSeeker(String id, String name, String passwordHash, List<String> enrolledSessionNames) {
+        super(id, name, passwordHash);
+        if (enrolledSessionNames != null) this.enrolledSessionNames.addAll(enrolledSessionNames);
+    }
+
+    // Backed by ResultManager's seeker index rather than a separate copy.
+    public Collection<Result> getMyResults() {
+        return ResultManager.getResultsViewForSeeker(getId());
+    }
+
+    public List<String> getEnrolledSessionNames() {
+        return new ArrayList<>(enrolledSessionNames);
+    }
+
+    // Pending and decided requests, read from RequestedSessionManager's per-seeker index.
+    public List<RequestedSession> getMyRequestedSessions() {
+        return RequestedSessionManager.getRequestsForSeeker(getId());
+    }
+
+    @Override
+    public void requestSession(String skillName, String timing, int duration) {
+        if (duration <= 0 || duration > 120) {
+            log.warn(() -> "Invalid duration: " + duration + ". Duration must be between 1 and 120 minutes.");
+            return;
+        }
+        RequestedSession newRequest = new RequestedSession(skillName, this.getId(), timing, duration);
+        RequestedSessionManager.addRequest(newRequest);
+        log.info(() -> getName() + " (" + getId() + ") requested a session for '" + skillName + "' at " + timing + " for " + duration + " minutes.");
+    }
+
+    @Override
+    public void addSession(String skillName, String timing, int duration) {
+        log.warn(() -> getName() + " (Skill Seeker) cannot add sessions. Only Skill Providers can add sessions.");
+    }
+
+    @Override
+    public void enrollInSession(Session session) {
+        if (session != null) {
+            if (session.addEnrolledUser(this.getId())) {
+                enrolledSessionNames.add(session.getSkillName());
+                DataDomain.USERS.markChanged();
+                PlatformJournal.append(JournalRecord.Type.ENROLL, getId(), session.getSkillCode());
+                log.info(() -> getName() + " successfully enrolled in session: " + session.getSkillName());
+            } else {
+                log.info(() -> getName() + " failed to enroll in session: " + session.getSkillName() + ". Already enrolled or session is full.");
+            }
+        } else {
+            log.warn("Cannot enroll: Session object is null.");
+        }
+    }
+
+    @Override
+    public void rateSession(Session session, int rating) {
+        rateSession(session, rating, System.currentTimeMillis());
+    }
+
+    // Rating again replaces the seeker's earlier rating of the session rather than adding to it.
+    public void rateSession(Session session, int rating, long ratedAtMillis) {
+        if (session != null && session.isUserEnrolled(getId())) {
+            if (session.rate(getId(), rating, ratedAtMillis)) {
+                PlatformJournal.append(JournalRecord.Type.RATE, getId(), session.getSkillCode(), String.valueOf(rating), String.valueOf(ratedAtMillis));
+                log.info(() -> getName() + " rated session '" + session.getSkillName() + "' as " + rating + " stars.");
+            }
+        } else {
+            log.info(() -> getName() + " cannot rate session '" + (session != null ? session.getSkillName() : "null") + "'. Not enrolled or session not found.");
+        }
+    }
+
+    @Override
+    public void checkRatings(String skillName) {
+        SessionManager.getSessionBySkillName(skillName).ifPresentOrElse(
+                session -> log.info(() -> "Current average rating for '" + skillName + "': " + String.format("%.1f", session.getAverageSkillRating())),
+                () -> log.info(() -> "Session '" + skillName + "' not found to check ratings.")
+        );
+    }
+}
+
+class SkillProvider extends AbstractPerson implements SessionActions {
+
+    public SkillProvider(String name, String passwordHash) {
+        super(IdAllocator.next("provider"), name, passwordHash);
+    }
+
+    public SkillProvider(String id, String name, String passwordHash) {
+        super(id, name, passwordHash);
+    }
+
+    @Override
+    public void requestSession(String skillName, String timing, int duration) {
+        log.warn(() -> getName() + " (Skill Provider) cannot request sessions. Only Skill Seekers can request sessions.");
+    }
+
+    @Override
+    public void addSession(String skillName, String timing, int duration) {
+        addSession(skillName, timing, duration, Session.DEFAULT_CAPACITY);
+    }
+
+    public Optional<Session> addSession(String skillName, String timing, int duration, int capacity) {
+        String skillCode = SkillCodeRegistry.allocate(skillName);
+        Session newSession = new Session(skillName, skillCode, timing, this.getName(), duration, capacity);
+        if (!SessionManager.addSession(newSession)) {
+            return Optional.empty();
+        }
+        log.info(() -> getName() + " added a new session: " + newSession.getSkillName());
+        return Optional.of(newSession);
+    }
+
+    // Serves a whole demand cluster with one session: requests are fulfilled oldest first and their seekers
+    // enrolled until the session is full. Requests that don't fit stay pending for a later session.
+    public Optional<Session> fulfillDemandCluster(DemandCluster cluster, int capacity, Map<String, AbstractPerson> users) {
+        Optional<Session> created = addSession(cluster.getSkillName(), cluster.getTiming(), cluster.getDuration(), capacity);
+        created.ifPresent(session -> {
+            for (RequestedSession request : cluster.getRequests()) {
+                if (session.isFull()) break;
+                // Skip requests fulfilled or denied since the cluster was built.
+                if (RequestedSessionManager.fulfillRequest(request).isEmpty()) continue;
+                AbstractPerson requester = users.get(request.getRequestedByUserId());
+                if (requester instanceof SkillSeeker) {
+                    ((SkillSeeker) requester).enrollInSession(session);
+                }
+            }
+            log.info(() -> getName() + " fulfilled " + session.getEnrolledUserIds().size() + " of " + cluster.getDemand()
+                    + " request(s) for '" + cluster.getSkillName() + "' with session " + session.getSkillCode());
+        });
+        return created;
+    }
+
+    @Override
+    public void enrollInSession(Session session) {
+        log.warn(() -> getName() + " (Skill Provider) cannot enroll in sessions. Only Skill Seekers can enroll.");
+    }
+
+    @Override
+    public void rateSession(Session session, int rating) {
+        log.warn(() -> getName() + " (Skill Provider) cannot rate sessions.");
+    }
+
+    @Override
+    public void checkRatings(String skillName) {
+        SessionManager.getSessionBySkillName(skillName).ifPresentOrElse(
+                session -> log.info(() -> "Current average rating for '" + skillName + "': " + String.format("%.1f", session.getAverageSkillRating())),
+                () -> log.info(() -> "Session '" + skillName + "' not found to check ratings.")
+        );
+    }
+}
+
+// ==================================================================================================================
+// Persistence: write-ahead journal
+// ==================================================================================================================
+class JournalRecord {
+    enum Type {
+        // Ordinals are stored in the journal, so new types are only ever appended.
+        REGISTER_USER, ADD_SESSION, ENROLL, RATE, ADD_REQUEST, REMOVE_REQUEST, ADD_RESULT,
+        ADD_LECTURE, ADD_QUIZ, ADD_ASSIGNMENT, SUBMIT_ASSIGNMENT, SET_REQUEST_STATUS, SET_PASSWORD_HASH,
+        ADD_QUIZ_ATTEMPT, ADD_BANK_QUESTION
+    }
+
+    // Far above any real record; a length beyond it can only come from a torn or corrupt header.
+    static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+
+    private final long sequence;
+    private final Type type;
+    private final String[] fields;
+    private int encodedLength = -1;
+
+    public JournalRecord(long sequence, Type type, String[] fields) {
+        this.sequence = sequence;
+        this.type = type;
+        this.fields = fields;
+    }
+
+    public long getSequence() { return sequence; }
+    public Type getType() { return type; }
+    public String getField(int index) { return fields[index]; }
+    public int getFieldCount() { return fields.length; }
+
+    // Record layout: [int payloadLength][int crc32(payload)][payload], where the payload is
+    // [long sequence][byte type][short fieldCount] followed by each field as [int byteLength][UTF-8 bytes].
+    byte[] encode() {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream payload = new DataOutputStream(payloadBytes)) {
+            payload.writeLong(sequence);
+            payload.writeByte(type.ordinal());
+            payload.writeShort(fields.length);
+            for (String field : fields) {
+                byte[] bytes = (field == null ? "" : field).getBytes(StandardCharsets.UTF_8);
+                payload.writeInt(bytes.length);
+                payload.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] body = payloadBytes.toByteArray();
+        if (body.length > MAX_RECORD_LENGTH) {
+            throw new IllegalArgumentException("Journal record of " + body.length + " bytes exceeds " + MAX_RECORD_LENGTH);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return ByteBuffer.allocate(8 + body.length).putInt(body.length).putInt((int) crc.getValue()).put(body).array();
+    }
+
+    // Returns null when the stream ends cleanly or the next record is torn or corrupt.
+    static JournalRecord decode(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 11 || length > MAX_RECORD_LENGTH) return null;
+        byte[] body = new byte[length];
+        int expectedCrc;
+        try {
+            expectedCrc = in.readInt();
+            in.readFully(body);
+        } catch (EOFException e) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if ((int) crc.getValue() != expectedCrc) return null;
+
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        long sequence = buffer.getLong();
+        int typeOrdinal = buffer.get();
+        if (typeOrdinal < 0 || typeOrdinal >= Type.values().length) return null;
+        // The CRC only proves the payload is what was written, so lengths are still checked before use.
+        int fieldCount = buffer.getShort();
+        if (fieldCount < 0 || fieldCount > buffer.remaining() / Integer.BYTES) return null;
+        String[] fields = new String[fieldCount];
+        for (int i = 0; i < fields.length; i++) {
+            if (buffer.remaining() < Integer.BYTES) return null;
+            int fieldLength = buffer.getInt();
+            if (fieldLength < 0 || fieldLength > buffer.remaining()) return null;
+            byte[] bytes = new byte[fieldLength];
+            buffer.get(bytes);
+            fields[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        JournalRecord record = new JournalRecord(sequence, Type.values()[typeOrdinal], fields);
+        record.encodedLength = 8 + length;
+        return record;
+    }
+
+    // Size of the record on disk; only known for records that were decoded from a journal file.
+    int getEncodedLength() { return encodedLength; }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + type + " " + String.join("|", fields);
+    }
+}
+
+// Append-only journal of domain mutations. Callers append from the mutation site; a single writer thread
+// drains whatever has queued up since the last write and commits the whole batch with one fsync (group commit).
+// Appends are ignored until open() is called, so loading the snapshot and replaying the journal never re-journal.
+class PlatformJournal {
+    private static final int MAX_BATCH_SIZE = 512;
+    private static final PlatformLog log = PlatformLog.named("journal");
+
+    private static final Object lock = new Object();
+    private static final BlockingQueue<JournalRecord> pending = new LinkedBlockingQueue<>();
+    private static String activeFile;
+    private static FileChannel channel;
+    private static Thread writerThread;
+    private static volatile boolean accepting = false;
+    private static long nextSequence = 1;
+    private static long lastAppendedSequence = 0;
+    private static long lastDurableSequence = 0;
+
+    // Reads every intact record after afterSequence and passes it to the handler, returning the highest
+    // sequence seen (or afterSequence if the journal is empty). Closed segments left by rotate() are read
+    // first, oldest to newest, then the active file. A torn tail record ends the replay of that file.
+    public static long replay(String journalFile, long afterSequence, Consumer<JournalRecord> handler) {
+        long highestSequence = afterSequence;
+        List<File> files = new ArrayList<>();
+        for (Path segment : segments(journalFile).values()) {
+            files.add(segment.toFile());
+        }
+        files.add(new File(journalFile));
+        for (File file : files) {
+            if (!file.exists()) continue;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                JournalRecord record;
+                int count = 0;
+                while ((record = JournalRecord.decode(in)) != null) {
+                    highestSequence = Math.max(highestSequence, record.getSequence());
+                    if (record.getSequence() > afterSequence) {
+                        handler.accept(record);
+                        count++;
+                    }
+                }
+                int replayed = count;
+                log.info(() -> "Replayed " + replayed + " journal record(s) from " + file);
+            } catch (IOException e) {
+                log.error(() -> "Error replaying journal " + file + ": " + e.getMessage());
+            }
+        }
+        return highestSequence;
+    }
+
+    // Closed segments of the journal, named "<journal>.<last sequence>", keyed and ordered by that sequence.
+    private static NavigableMap<Long, Path> segments(String journalFile) {
+        NavigableMap<Long, Path> segments = new TreeMap<>();
+        Path journal = Path.of(journalFile).toAbsolutePath();
+        String prefix = journal.getFileName() + ".";
+        try (DirectoryStream<Path> directory = Files.newDirectoryStream(journal.getParent(), prefix + "*")) {
+            for (Path file : directory) {
+                try {
+                    segments.put(Long.parseLong(file.getFileName().toString().substring(prefix.length())), file);
+                } catch (NumberFormatException e) {
+                    // Not a segment.
+                }
+            }
+        } catch (IOException e) {
+            log.error(() -> "Error listing journal segments: " + e.getMessage());
+        }
+        return segments;
+    }
+
+    public static void open(String journalFile, long lastSequence) {
+        synchronized (lock) {
+            if (accepting) return;
+            try {
+                channel = FileChannel.open(Path.of(journalFile), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+                channel.position(validLength(journalFile));
+                channel.truncate(channel.position());
+            } catch (IOException e) {
+                log.error(() -> "Error opening journal " + journalFile + ": " + e.getMessage());
+                return;
+            }
+            activeFile = journalFile;
+            nextSequence = lastSequence + 1;
+            lastAppendedSequence = lastSequence;
+            lastDurableSequence = lastSequence;
+            accepting = true;
+            writerThread = new Thread(PlatformJournal::runWriter, "journal-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+    }
+
+    // Length of the prefix of the file made up of intact records; anything after it is a torn write.
+    private static long validLength(String journalFile) throws IOException {
+        long length = 0;
+        File file = new File(journalFile);
+        if (!file.exists()) return 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            JournalRecord record;
+            while ((record = JournalRecord.decode(in)) != null) {
+                length += record.getEncodedLength();
+            }
+        }
+        return length;
+    }
+
+    public static void append(JournalRecord.Type type, String... fields) {
+        if (!accepting) return;
+        synchronized (lock) {
+            if (!accepting) return;
+            JournalRecord record = new JournalRecord(nextSequence++, type, fields);
+            lastAppendedSequence = record.getSequence();
+            pending.add(record);
+        }
+    }
+
+    private static void runWriter() {
+        List<JournalRecord> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                pending.drainTo(batch);
+                if (!batch.isEmpty()) writeBatch(batch);
+                return;
+            }
+            pending.drainTo(batch, MAX_BATCH_SIZE - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private static void writeBatch(List<JournalRecord> batch) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(batch.size() * 64);
+        for (JournalRecord record : batch) {
+            bytes.writeBytes(record.encode());
+        }
+        synchronized (lock) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+                lastDurableSequence = batch.get(batch.size() - 1).getSequence();
+            } catch (IOException e) {
+                log.error(() -> "Error writing journal batch: " + e.getMessage());
+            }
+            lock.notifyAll();
+        }
+    }
+
+    // Blocks until every record appended so far has been written and synced.
+    public static void flush() {
+        synchronized (lock) {
+            flushLocked();
+        }
+    }
+
+    private static void flushLocked() {
+        while (accepting && lastDurableSequence < lastAppendedSequence && writerThread.isAlive()) {
+            try {
+                lock.wait(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // First half of a compaction: flushes pending records, closes the active file as a segment and starts a
+    // new one, and returns the last sequence the closed segments hold. The caller snapshots the state at that
+    // sequence and, once the snapshot is on disk, calls discardSegmentsThrough() with it. Appends only wait for
+    // the rename, not for the snapshot. If the rename fails the records stay in the active file, which is
+    // harmless: replay skips everything the snapshot already covers.
+    public static long rotate() {
+        synchronized (lock) {
+            flushLocked();
+            long sequence = lastAppendedSequence;
+            if (channel == null) return sequence;
+            try {
+                if (channel.size() > 0) {
+                    channel.close();
+                    Files.move(Path.of(activeFile), Path.of(activeFile + "." + sequence), StandardCopyOption.REPLACE_EXISTING);
+                    channel = FileChannel.open(Path.of(activeFile), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+                }
+            } catch (IOException e) {
+                log.error(() -> "Error rotating journal: " + e.getMessage());
+                try {
+                    if (!channel.isOpen()) {
+                        channel = FileChannel.open(Path.of(activeFile), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+                        channel.position(channel.size());
+                    }
+                } catch (IOException reopen) {
+                    log.error(() -> "Error reopening journal: " + reopen.getMessage());
+                }
+            }
+            return sequence;
+        }
+    }
+
+    // Second half of a compaction: deletes the closed segments a durable snapshot now covers.
+    public static void discardSegmentsThrough(long sequence) {
+        String journalFile;
+        synchronized (lock) {
+            journalFile = activeFile;
+        }
+        if (journalFile == null) return;
+        for (Path segment : segments(journalFile).headMap(sequence, true).values()) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                log.error(() -> "Error deleting journal segment " + segment + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public static void close() {
+        Thread writer;
+        synchronized (lock) {
+            if (!accepting) return;
+            flushLocked();
+            accepting = false;
+            writer = writerThread;
+        }
+        writer.interrupt();
+        try {
+            writer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.error(() -> "Error closing journal: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+}
+
+// ==================================================================================================================
+// Persistence: parallel startup loader
+// ==================================================================================================================
+enum DataDomain {
+    USERS("users.txt"),
+    SESSIONS("sessions.txt"),
+    REQUESTS("requests.txt"),
+    RESULTS("results.txt"),
+    LECTURES("lectures.txt"),
+    QUIZZES("quizzes.txt"),
+    ASSIGNMENTS("assignments.txt"),
+    SUBMISSIONS("submissions.txt"),
+    QUIZ_ATTEMPTS("quiz_attempts.txt"),
+    QUESTION_BANK("question_bank.txt"),
+    RATINGS("ratings.txt");
+
+    private static final AtomicLong changeCount = new AtomicLong();
+    private static volatile long lastChangeNanos;
+
+    private final String textFileName;
+    // Bumped by the managers on every change to this domain's records. Autosave compares it with the version
+    // it last encoded, so only the sections that changed are encoded and exported again.
+    private final AtomicLong version = new AtomicLong();
+
+    DataDomain(String textFileName) {
+        this.textFileName = textFileName;
+    }
+
+    public String getTextFileName() { return textFileName; }
+
+    public long getVersion() { return version.get(); }
+
+    public void markChanged() {
+        version.incrementAndGet();
+        changeCount.incrementAndGet();
+        lastChangeNanos = System.nanoTime();
+    }
+
+    // Changes across all domains, and when the latest one happened; autosave uses them to debounce bursts.
+    public static long getChangeCount() { return changeCount.get(); }
+
+    public static long getLastChangeNanos() { return lastChangeNanos; }
+
+    public static Map<DataDomain, String> textFiles() {
+        Map<DataDomain, String> files = new EnumMap<>(DataDomain.class);
+        for (DataDomain domain : values()) {
+            files.put(domain, domain.getTextFileName());
+        }
+        return files;
+    }
+}
+
+// Splits a delimited line without regex or intermediate lists. Field boundaries are recorded as offsets into
+// the line, so numeric fields can be parsed in place and only the fields that are read become Strings.
+// Unlike String.split, trailing empty fields are kept. Instances are reusable but not thread-safe.
+class FieldSplitter {
+    private final char delimiter;
+    private String line;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int count;
+
+    public FieldSplitter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    public int split(String line) {
+        this.line = line;
+        count = 0;
+        int start = 0;
+        while (true) {
+            int end = line.indexOf(delimiter, start);
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            if (end < 0) {
+                ends[count++] = line.length();
+                return count;
+            }
+            ends[count++] = end;
+            start = end + 1;
+        }
+    }
+
+    public int count() { return count; }
+
+    public String get(int index) {
+        return line.substring(starts[index], ends[index]);
+    }
+
+    public boolean isEmpty(int index) {
+        return starts[index] == ends[index];
+    }
+
+    public int getInt(int index) {
+        return Integer.parseInt(line, starts[index], ends[index], 10);
+    }
+
+    public static String[] splitToArray(String line, char delimiter) {
+        FieldSplitter splitter = new FieldSplitter(delimiter);
+        int count = splitter.split(line);
+        String[] fields = new String[count];
+        for (int i = 0; i < count; i++) {
+            fields[i] = splitter.get(i);
+        }
+        return fields;
+    }
+}
+
+// Line formats of the flat text files. Used by the text loader, by the snapshot converter and for the
+// debugging text export, so all three agree on the layout.
+class PlatformTextFormat {
+    public static Object parse(DataDomain domain, String line, FieldSplitter fields) {
+        int count = fields.split(line);
+        switch (domain) {
+            case USERS:
+                if (count < 4) return null;
+                if ("seeker".equals(fields.get(0))) {
+                    List<String> enrolledSkills = count > 4 && !fields.isEmpty(4)
+                            ? Arrays.asList(FieldSplitter.splitToArray(fields.get(4), ','))
+                            : new ArrayList<>();
+                    return new SkillSeeker(fields.get(1), fields.get(2), fields.get(3), enrolledSkills);
+                } else if ("provider".equals(fields.get(0))) {
+                    return new SkillProvider(fields.get(1), fields.get(2), fields.get(3));
+                }
+                return null;
+            case SESSIONS: {
+                if (count < 7) return null;
+                List<String> enrolledUserIds = count > 7 && !fields.isEmpty(7)
+                        ? Arrays.asList(FieldSplitter.splitToArray(fields.get(7), ','))
+                        : new ArrayList<>();
+                int capacity = count > 8 ? fields.getInt(8) : Session.DEFAULT_CAPACITY;
+                return new Session(fields.get(0), fields.get(1), fields.get(2), fields.get(3),
+                        fields.getInt(4), fields.getInt(5), fields.getInt(6), enrolledUserIds, capacity);
+            }
+            case REQUESTS: {
+                if (count != 5) return null;
+                RequestedSession request = new RequestedSession(fields.get(0), fields.get(1), fields.get(2), fields.getInt(3));
+                request.setStatus(RequestStatus.parse(fields.get(4)));
+                return request;
+            }
+            case RESULTS:
+                if (count != 3) return null;
+                return new Result(fields.get(0), fields.get(1), fields.getInt(2));
+            case LECTURES:
+                return Lecture.fromString(line);
+            case QUIZZES:
+                return Quiz.fromString(line);
+            case ASSIGNMENTS:
+            case SUBMISSIONS:
+                return Assignment.fromString(line);
+            case QUIZ_ATTEMPTS:
+                if (count < 4) return null;
+                return new QuizAttempt(fields.get(0), fields.get(1), fields.getInt(2), QuizAttempt.decodeAnswers(fields.get(3)),
+                        count > 4 && !fields.isEmpty(4) ? QuizDraw.fromString(fields.get(4)) : null);
+            case QUESTION_BANK:
+                return BankQuestion.fromString(line);
+            case RATINGS:
+                if (count != 4) return null;
+                return new SessionRating(fields.get(0), fields.get(1), fields.getInt(2), Long.parseLong(fields.get(3)));
+            default:
+                return null;
+        }
+    }
+
+    public static String format(DataDomain domain, Object record) {
+        switch (domain) {
+            case USERS:
+                if (record instanceof SkillSeeker) {
+                    SkillSeeker seeker = (SkillSeeker) record;
+                    String enrolledSkills = String.join(",", seeker.getEnrolledSessionNames());
+                    return "seeker|" + seeker.getId() + "|" + seeker.getName() + "|" + seeker.getPasswordHash() + "|" + enrolledSkills;
+                }
+                AbstractPerson provider = (AbstractPerson) record;
+                return "provider|" + provider.getId() + "|" + provider.getName() + "|" + provider.getPasswordHash();
+            case SESSIONS: {
+                Session session = (Session) record;
+                String enrolledUsers = String.join(",", session.getEnrolledUserIds());
+                return session.getSkillName() + "|" + session.getSkillCode() + "|" + session.getSkillSlotTiming() + "|" + session.getSkillInstructor() + "|" + session.getSessionDuration() + "|" + session.getLegacyRatingSum() + "|" + session.getLegacyRatingCount() + "|" + enrolledUsers + "|" + session.getCapacity();
+            }
+            case REQUESTS: {
+                RequestedSession request = (RequestedSession) record;
+                return request.getSkillName() + "|" + request.getRequestedByUserId() + "|" + request.getTiming() + "|" + request.getDuration() + "|" + request.getStatus();
+            }
+            case RESULTS: {
+                Result result = (Result) record;
+                return result.getSeekerId() + "|" + result.getSkillName() + "|" + result.getMarks();
+            }
+            case QUIZ_ATTEMPTS: {
+                QuizAttempt attempt = (QuizAttempt) record;
+                return attempt.getSeekerId() + "|" + attempt.getSkillName() + "|" + attempt.getQuizVersion() + "|"
+                        + QuizAttempt.encodeAnswers(attempt.getAnswers()) + (attempt.getDraw() == null ? "" : "|" + attempt.getDraw());
+            }
+            case RATINGS: {
+                SessionRating rating = (SessionRating) record;
+                return rating.getSkillCode() + "|" + rating.getSeekerId() + "|" + rating.getRating() + "|" + rating.getRatedAt();
+            }
+            default:
+                return record.toString();
+        }
+    }
+
+    // Writes to a temporary file and renames it over the target, so a crash mid-write leaves the previous
+    // file intact instead of a truncated one.
+    public static void writeFile(String fileName, DataDomain domain, Collection<?> records) throws IOException {
+        Path target = Path.of(fileName);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp.toFile());
+             PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out)))) {
+            for (Object record : records) {
+                writer.println(format(domain, record));
+            }
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("Error writing " + temp);
+            }
+            out.getFD().sync();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
+
+// Loads platform data in two phases. Phase one decodes every domain concurrently on a bounded pool into plain
+// record lists, either by parsing the flat text files or by decoding the sections of a binary snapshot; phase
+// two runs on the calling thread and fills the managers; seekers reach their requests and results through the
+// managers' per-seeker indexes, so nothing is linked by hand and the managers never see concurrent writers.
+// A domain that fails to decode fails the whole load before phase two, so the managers are never filled from
+// a partial data set that a later save would then make permanent.
+class PlatformDataLoader {
+    private static final PlatformLog log = PlatformLog.named("loader");
+
+    private final Map<DataDomain, String> files;
+    private final BinarySnapshot snapshot;
+    private final Set<DataDomain> domains;
+    private final Map<DataDomain, List<?>> parsed = new EnumMap<>(DataDomain.class);
+    private final Map<DataDomain, Long> parseNanos = new ConcurrentHashMap<>();
+
+    public PlatformDataLoader(Map<DataDomain, String> files) {
+        this.files = files;
+        this.snapshot = null;
+        this.domains = files.keySet();
+    }
+
+    public PlatformDataLoader(BinarySnapshot snapshot) {
+        this.files = Collections.emptyMap();
+        this.snapshot = snapshot;
+        this.domains = snapshot.getDomains();
+    }
+
+    public void loadInto(Map<String, AbstractPerson> registeredUsers) throws IOException {
+        long startNanos = System.nanoTime();
+        parseAll();
+        long linkStartNanos = System.nanoTime();
+        // Quiet while the managers take every record, so only problems are logged per record.
+        PlatformLog.Level level = PlatformLog.quiet();
+        try {
+            applyTo(registeredUsers);
+        } finally {
+            PlatformLog.setLevel(level);
+        }
+        long endNanos = System.nanoTime();
+
+        for (DataDomain domain : domains) {
+            log.info(() -> String.format("Loaded %d record(s) from %s in %.1f ms",
+                    parsed.get(domain).size(), sourceName(domain), parseNanos.getOrDefault(domain, 0L) / 1_000_000.0));
+        }
+        log.info(() -> String.format("Linked records in %.1f ms; total load time %.1f ms",
+                (endNanos - linkStartNanos) / 1_000_000.0, (endNanos - startNanos) / 1_000_000.0));
+    }
+
+    // Runs phase one only and returns the decoded records per domain without touching the managers.
+    public Map<DataDomain, List<?>> parseOnly() throws IOException {
+        parseAll();
+        return parsed;
+    }
+
+    private void parseAll() throws IOException {
+        AbstractPerson.resetTotalUsers();
+        int threads = Math.max(1, Math.min(domains.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "data-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<DataDomain, Future<List<?>>> futures = new EnumMap<>(DataDomain.class);
+            for (DataDomain domain : domains) {
+                futures.put(domain, executor.submit(() -> snapshot != null ? decodeSection(domain) : parseFile(domain)));
+            }
+            List<String> failures = new ArrayList<>();
+            for (Map.Entry<DataDomain, Future<List<?>>> entry : futures.entrySet()) {
+                try {
+                    parsed.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    log.error(() -> "Error loading " + sourceName(entry.getKey()) + ": " + e.getCause());
+                    failures.add(sourceName(entry.getKey()) + " (" + e.getCause().getMessage() + ")");
+                }
+            }
+            if (!failures.isEmpty()) {
+                throw new IOException("Could not load " + String.join(", ", failures));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading platform data");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String sourceName(DataDomain domain) {
+        return snapshot != null ? "snapshot section " + domain : files.get(domain);
+    }
+
+    private List<?> decodeSection(DataDomain domain) throws IOException {
+        long startNanos = System.nanoTime();
+        List<?> records = snapshot.decode(domain);
+        parseNanos.put(domain, System.nanoTime() - startNanos);
+        return records;
+    }
+
+    private List<?> parseFile(DataDomain domain) throws IOException {
+        long startNanos = System.nanoTime();
+        String fileName = files.get(domain);
+        List<Object> records = new ArrayList<>();
+        FieldSplitter fields = new FieldSplitter('|');
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                Object record = PlatformTextFormat.parse(domain, line, fields);
+                if (record != null) {
+                    records.add(record);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            log.info(() -> "No existing data file found (" + fileName + "). Starting fresh.");
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed record in " + fileName + ": " + e.getMessage(), e);
+        }
+        parseNanos.put(domain, System.nanoTime() - startNanos);
+        return records;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> records(DataDomain domain) {
+        return (List<T>) parsed.getOrDefault(domain, Collections.emptyList());
+    }
+
+    private void applyTo(Map<String, AbstractPerson> registeredUsers) {
+        if (domains.contains(DataDomain.USERS)) {
+            UserNameIndex.clear();
+            for (AbstractPerson person : this.<AbstractPerson>records(DataDomain.USERS)) {
+                registeredUsers.put(person.getId(), person);
+                UserNameIndex.add(person);
+            }
+        }
+        if (domains.contains(DataDomain.SESSIONS)) {
+            SessionManager.clearAllSessions();
+            this.<Session>records(DataDomain.SESSIONS).forEach(SessionManager::addSession);
+        }
+        if (domains.contains(DataDomain.REQUESTS)) {
+            RequestedSessionManager.clearRequests();
+            this.<RequestedSession>records(DataDomain.REQUESTS).forEach(RequestedSessionManager::addRequest);
+        }
+        if (domains.contains(DataDomain.RESULTS)) {
+            ResultManager.clearAllResults();
+            this.<Result>records(DataDomain.RESULTS).forEach(ResultManager::addResult);
+        }
+        if (domains.contains(DataDomain.LECTURES)) {
+            LectureManager.clearAllLectures();
+            this.<Lecture>records(DataDomain.LECTURES).forEach(LectureManager::addLecture);
+        }
+        if (domains.contains(DataDomain.QUIZZES)) {
+            QuizManager.clearAllQuizzes();
+            this.<Quiz>records(DataDomain.QUIZZES).forEach(QuizManager::addQuiz);
+        }
+        if (domains.contains(DataDomain.ASSIGNMENTS) || domains.contains(DataDomain.SUBMISSIONS)) {
+            AssignmentManager.clearAllAssignments();
+            this.<Assignment>records(DataDomain.ASSIGNMENTS).forEach(AssignmentManager::addAssignment);
+            this.<Assignment>records(DataDomain.SUBMISSIONS).forEach(AssignmentManager::addSubmission);
+        }
+        if (domains.contains(DataDomain.QUIZ_ATTEMPTS)) {
+            QuizAttemptManager.clearAllAttempts();
+            this.<QuizAttempt>records(DataDomain.QUIZ_ATTEMPTS).forEach(QuizAttemptManager::addAttempt);
+        }
+        if (domains.contains(DataDomain.QUESTION_BANK)) {
+            QuestionBankManager.clearAllBanks();
+            this.<BankQuestion>records(DataDomain.QUESTION_BANK).forEach(QuestionBankManager::addQuestion);
+        }
+        // After the sessions, which the ratings are applied to.
+        if (domains.contains(DataDomain.RATINGS)) {
+            SessionManager.clearAllRatings();
+            this.<SessionRating>records(DataDomain.RATINGS).forEach(SessionManager::restoreRating);
+        }
+    }
+}
+
+// ==================================================================================================================
+// Persistence: binary snapshot
+// ==================================================================================================================
+// Builds one snapshot section: a section-local string table followed by the encoded records. Every string is
+// written once and referenced by index, so repeated skill names and user IDs cost four bytes per use.
+class SnapshotSectionWriter {
+    private final Map<String, Integer> stringIndex = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+    private final DataOutputStream body = new DataOutputStream(bodyBytes);
+    private int recordCount;
+
+    public void beginRecord() { recordCount++; }
+
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            body.writeInt(-1);
+            return;
+        }
+        Integer index = stringIndex.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.add(value);
+            stringIndex.put(value, index);
+        }
+        body.writeInt(index);
+    }
+
+    public void writeInt(int value) throws IOException { body.writeInt(value); }
+
+    public void writeByte(int value) throws IOException { body.writeByte(value); }
+
+    public void writeLong(long value) throws IOException { body.writeLong(value); }
+
+    public void writeBytes(byte[] value) throws IOException {
+        body.writeInt(value.length);
+        body.write(value);
+    }
+
+    // Layout: [int stringCount][stringCount x ([int byteLength][UTF-8 bytes])][int recordCount][records]
+    public byte[] toByteArray() throws IOException {
+        body.flush();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bodyBytes.size() + strings.size() * 16 + 8);
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(strings.size());
+        for (String value : strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+        }
+        data.writeInt(recordCount);
+        bodyBytes.writeTo(data);
+        data.flush();
+        return out.toByteArray();
+    }
+}
+
+// Reads one snapshot section. Only string offsets are collected up front; each string is decoded the first
+// time a record references it.
+class SnapshotSectionReader {
+    private final ByteBuffer buffer;
+    private final int[] stringOffsets;
+    private final int[] stringLengths;
+    private final String[] strings;
+    private final int recordCount;
+
+    public SnapshotSectionReader(ByteBuffer section) {
+        this.buffer = section;
+        int stringCount = buffer.getInt();
+        stringOffsets = new int[stringCount];
+        stringLengths = new int[stringCount];
+        strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            stringLengths[i] = buffer.getInt();
+            stringOffsets[i] = buffer.position();
+            buffer.position(buffer.position() + stringLengths[i]);
+        }
+        recordCount = buffer.getInt();
+    }
+
+    public int getRecordCount() { return recordCount; }
+
+    public String readString() {
+        int index = buffer.getInt();
+        if (index < 0) return null;
+        String value = strings[index];
+        if (value == null) {
+            byte[] bytes = new byte[stringLengths[index]];
+            buffer.get(stringOffsets[index], bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    public int readInt() { return buffer.getInt(); }
+
+    public int readByte() { return buffer.get(); }
+
+    public long readLong() { return buffer.getLong(); }
+
+    public byte[] readBytes() {
+        byte[] value = new byte[buffer.getInt()];
+        buffer.get(value);
+        return value;
+    }
+}
+
+// Versioned binary snapshot of the whole platform state, replacing the delimiter-based text files as the
+// primary store. Layout: a header ([int magic][short version][short sectionCount][long journalSequence])
+// followed by a section table of [byte domain][long offset][long length][int crc32] entries and the section
+// bodies. The file is memory-mapped on open and a section is only checked and decoded when decode() is called
+// for it.
+class BinarySnapshot {
+    private static final int MAGIC = 0x53535053; // "SSPS"
+    // Version 2 added the per-session capacity, version 3 quiz versions, version 4 the draws of quiz attempts.
+    private static final short VERSION = 4;
+    private static final int HEADER_LENGTH = 16;
+    private static final int SECTION_ENTRY_LENGTH = 21;
+
+    private final int version;
+    private final long journalSequence;
+    private final Map<DataDomain, ByteBuffer> sections;
+    private final Map<DataDomain, Integer> checksums;
+
+    private BinarySnapshot(int version, long journalSequence, Map<DataDomain, ByteBuffer> sections, Map<DataDomain, Integer> checksums) {
+        this.version = version;
+        this.journalSequence = journalSequence;
+        this.sections = sections;
+        this.checksums = checksums;
+    }
+
+    public long getJournalSequence() { return journalSequence; }
+
+    public Set<DataDomain> getDomains() { return sections.keySet(); }
+
+    // A copy of the section's bytes, if it is present and in the format write() produces now.
+    public Optional<byte[]> getEncodedSection(DataDomain domain) {
+        ByteBuffer section = sections.get(domain);
+        if (section == null || version != VERSION) return Optional.empty();
+        byte[] bytes = new byte[section.remaining()];
+        section.duplicate().get(bytes);
+        return Optional.of(bytes);
+    }
+
+    public static BinarySnapshot open(Path path) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (mapped.limit() < HEADER_LENGTH || mapped.getInt(0) != MAGIC) {
+            throw new IOException("Not a platform snapshot: " + path);
+        }
+        short version = mapped.getShort(4);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + " in " + path);
+        }
+        int sectionCount = mapped.getShort(6);
+        long journalSequence = mapped.getLong(8);
+        if (HEADER_LENGTH + (long) sectionCount * SECTION_ENTRY_LENGTH > mapped.limit()) {
+            throw new IOException("Corrupt section table in " + path);
+        }
+        Map<DataDomain, ByteBuffer> sections = new EnumMap<>(DataDomain.class);
+        Map<DataDomain, Integer> checksums = new EnumMap<>(DataDomain.class);
+        for (int i = 0; i < sectionCount; i++) {
+            int entry = HEADER_LENGTH + i * SECTION_ENTRY_LENGTH;
+            int domainOrdinal = mapped.get(entry);
+            long offset = mapped.getLong(entry + 1);
+            long length = mapped.getLong(entry + 9);
+            if (domainOrdinal < 0 || domainOrdinal >= DataDomain.values().length || offset < 0 || length < 0
+                    || offset + length > mapped.limit()) {
+                throw new IOException("Corrupt section table in " + path);
+            }
+            DataDomain domain = DataDomain.values()[domainOrdinal];
+            sections.put(domain, mapped.slice((int) offset, (int) length));
+            checksums.put(domain, mapped.getInt(entry + 17));
+        }
+        return new BinarySnapshot(version, journalSequence, sections, checksums);
+    }
+
+    // Decodes one section; safe to call for different sections from different threads.
+    // Any damage, whether caught by the checksum or by a record that doesn't decode, fails the whole section.
+    public List<?> decode(DataDomain domain) throws IOException {
+        ByteBuffer section = sections.get(domain);
+        if (section == null) return new ArrayList<>();
+        if (checksums.get(domain) != checksumOf(section.duplicate())) {
+            throw new IOException("Checksum mismatch in snapshot section " + domain);
+        }
+        List<Object> records;
+        try {
+            SnapshotSectionReader reader = new SnapshotSectionReader(section.duplicate());
+            records = new ArrayList<>(reader.getRecordCount());
+            for (int i = 0; i < reader.getRecordCount(); i++) {
+                records.add(decodeRecord(domain, reader, version));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt snapshot section " + domain + ": " + e, e);
+        }
+        return records;
+    }
+
+    private static int checksumOf(ByteBuffer section) {
+        CRC32 crc = new CRC32();
+        crc.update(section);
+        return (int) crc.getValue();
+    }
+
+    public static void write(Path path, long journalSequence, Map<DataDomain, ? extends Collection<?>> data) throws IOException {
+        writeSections(path, journalSequence, encodeSections(data));
+    }
+
+    // Encoding reads the live records, so it runs where their state is stable; the encoded sections can then
+    // be written from any thread.
+    public static Map<DataDomain, byte[]> encodeSections(Map<DataDomain, ? extends Collection<?>> data) throws IOException {
+        Map<DataDomain, byte[]> encoded = new EnumMap<>(DataDomain.class);
+        for (Map.Entry<DataDomain, ? extends Collection<?>> entry : data.entrySet()) {
+            SnapshotSectionWriter writer = new SnapshotSectionWriter();
+            for (Object record : entry.getValue()) {
+                writer.beginRecord();
+                encodeRecord(entry.getKey(), record, writer);
+            }
+            encoded.put(entry.getKey(), writer.toByteArray());
+        }
+        return encoded;
+    }
+
+    // Writes the snapshot to a temporary file and renames it over the target, so a crash never leaves a
+    // partially written snapshot behind.
+    public static void writeSections(Path path, long journalSequence, Map<DataDomain, byte[]> encoded) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH + encoded.size() * SECTION_ENTRY_LENGTH);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) encoded.size()).putLong(journalSequence);
+        long offset = header.capacity();
+        for (Map.Entry<DataDomain, byte[]> entry : encoded.entrySet()) {
+            header.put((byte) entry.getKey().ordinal()).putLong(offset).putLong(entry.getValue().length)
+                    .putInt(checksumOf(ByteBuffer.wrap(entry.getValue())));
+            offset += entry.getValue().length;
+        }
+        header.flip();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+            for (byte[] section : encoded.values()) {
+                writeFully(channel, ByteBuffer.wrap(section));
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void encodeRecord(DataDomain domain, Object record, SnapshotSectionWriter out) throws IOException {
+        switch (domain) {
+            case USERS: {
+                AbstractPerson person = (AbstractPerson) record;
+                boolean seeker = person instanceof SkillSeeker;
+                out.writeByte(seeker ? 0 : 1);
+                out.writeString(person.getId());
+                out.writeString(person.getName());
+                out.writeString(person.getPasswordHash());
+                if (seeker) {
+                    writeStrings(out, ((SkillSeeker) person).getEnrolledSessionNames());
+                }
+                break;
+            }
+            case SESSIONS: {
+                Session session = (Session) record;
+                out.writeString(session.getSkillName());
+                out.writeString(session.getSkillCode());
+                out.writeString(session.getSkillSlotTiming());
+                out.writeString(session.getSkillInstructor());
+                out.writeInt(session.getSessionDuration());
+                out.writeInt(session.getLegacyRatingSum());
+                out.writeInt(session.getLegacyRatingCount());
+                writeStrings(out, session.getEnrolledUserIds());
+                out.writeInt(session.getCapacity());
+                break;
+            }
+            case REQUESTS: {
+                RequestedSession request = (RequestedSession) record;
+                out.writeString(request.getSkillName());
+                out.writeString(request.getRequestedByUserId());
+                out.writeString(request.getTiming());
+                out.writeInt(request.getDuration());
+                out.writeString(request.getStatus().name());
+                break;
+            }
+            case RESULTS: {
+                Result result = (Result) record;
+                out.writeString(result.getSeekerId());
+                out.writeString(result.getSkillName());
+                out.writeInt(result.getMarks());
+                break;
+            }
+            case LECTURES: {
+                Lecture lecture = (Lecture) record;
+                out.writeString(lecture.getSkillName());
+                out.writeString(lecture.getVideoFilePath());
+                break;
+            }
+            case QUIZZES: {
+                Quiz quiz = (Quiz) record;
+                out.writeString(quiz.getSkillName());
+                out.writeInt(quiz.getVersion());
+                out.writeInt(quiz.getQuestions().size());
+                for (Question question : quiz.getQuestions()) {
+                    out.writeString(question.getQuestionText());
+                    writeStrings(out, question.getOptions());
+                    out.writeInt(question.getCorrectAnswerIndex());
+                }
+                break;
+            }
+            case ASSIGNMENTS:
+            case SUBMISSIONS: {
+                Assignment assignment = (Assignment) record;
+                out.writeString(assignment.getSkillName());
+                out.writeString(assignment.getDescription());
+                out.writeString(assignment.getSubmittedByUserId());
+                out.writeString(assignment.getFilePath());
+                break;
+            }
+            case QUIZ_ATTEMPTS: {
+                QuizAttempt attempt = (QuizAttempt) record;
+                out.writeString(attempt.getSeekerId());
+                out.writeString(attempt.getSkillName());
+                out.writeInt(attempt.getQuizVersion());
+                out.writeBytes(attempt.getAnswers());
+                out.writeString(attempt.getDraw() == null ? null : attempt.getDraw().toString());
+                break;
+            }
+            case QUESTION_BANK: {
+                BankQuestion bankQuestion = (BankQuestion) record;
+                out.writeString(bankQuestion.getSkillName());
+                out.writeByte(bankQuestion.getDifficulty().ordinal());
+                writeStrings(out, bankQuestion.getTags());
+                out.writeString(bankQuestion.getQuestion().getQuestionText());
+                writeStrings(out, bankQuestion.getQuestion().getOptions());
+                out.writeInt(bankQuestion.getQuestion().getCorrectAnswerIndex());
+                break;
+            }
+            case RATINGS: {
+                SessionRating rating = (SessionRating) record;
+                out.writeString(rating.getSkillCode());
+                out.writeString(rating.getSeekerId());
+                out.writeByte(rating.getRating());
+                out.writeLong(rating.getRatedAt());
+                break;
+            }
+        }
+    }
+
+    private static Object decodeRecord(DataDomain domain, SnapshotSectionReader in, int version) {
+        switch (domain) {
+            case USERS: {
+                boolean seeker = in.readByte() == 0;
+                String id = in.readString();
+                String name = in.readString();
+                String passwordHash = in.readString();
+                return seeker ? new SkillSeeker(id, name, passwordHash, readStrings(in)) : new SkillProvider(id, name, passwordHash);
+            }
+            case SESSIONS: {
+                // Decoded on the loader threads, so the session is built whole rather than changed afterwards,
+                // which would notify the session listeners before it is even added.
+                String skillName = in.readString();
+                String skillCode = in.readString();
+                String timing = in.readString();
+                String instructor = in.readString();
+                int duration = in.readInt();
+                int ratingSum = in.readInt();
+                int ratingCount = in.readInt();
+                List<String> enrolledUserIds = readStrings(in);
+                int capacity = version >= 2 ? in.readInt() : Session.DEFAULT_CAPACITY;
+                return new Session(skillName, skillCode, timing, instructor, duration, ratingSum, ratingCount, enrolledUserIds, capacity);
+            }
+            case REQUESTS: {
+                RequestedSession request = new RequestedSession(in.readString(), in.readString(), in.readString(), in.readInt());
+                request.setStatus(RequestStatus.parse(in.readString()));
+                return request;
+            }
+            case RESULTS:
+                return new Result(in.readString(), in.readString(), in.readInt());
+            case LECTURES:
+                return new Lecture(in.readString(), in.readString());
+            case QUIZZES: {
+                Quiz quiz = new Quiz(in.readString());
+                if (version >= 3) {
+                    quiz.setVersion(in.readInt());
+                }
+                int questionCount = in.readInt();
+                for (int i = 0; i < questionCount; i++) {
+                    String text = in.readString();
+                    List<String> options = readStrings(in);
+                    quiz.addQuestion(new Question(text, options, in.readInt()));
+                }
+                return quiz;
+            }
+            case QUIZ_ATTEMPTS: {
+                String seekerId = in.readString();
+                String skillName = in.readString();
+                int quizVersion = in.readInt();
+                byte[] answers = in.readBytes();
+                String draw = version >= 4 ? in.readString() : null;
+                return new QuizAttempt(seekerId, skillName, quizVersion, answers, draw == null ? null : QuizDraw.fromString(draw));
+            }
+            case QUESTION_BANK: {
+                String skillName = in.readString();
+                Difficulty difficulty = Difficulty.values()[in.readByte()];
+                List<String> tags = readStrings(in);
+                String text = in.readString();
+                List<String> options = readStrings(in);
+                return new BankQuestion(skillName, new Question(text, options, in.readInt()), tags, difficulty);
+            }
+            case RATINGS:
+                return new SessionRating(in.readString(), in.readString(), in.readByte(), in.readLong());
+            default: {
+                Assignment assignment = new Assignment(in.readString(), in.readString());
+                String submittedBy = in.readString();
+                String filePath = in.readString();
+                if (submittedBy != null) {
+                    assignment.setSubmittedByUserId(submittedBy);
+                    assignment.setFilePath(filePath);
+                }
+                return assignment;
+            }
+        }
+    }
+
+    private static void writeStrings(SnapshotSectionWriter out, Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeString(value);
+        }
+    }
+
+    private static List<String> readStrings(SnapshotSectionReader in) {
+        int count = in.readInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(in.readString());
+        }
+        return values;
+    }
+}
+
+// Command-line conversion between the flat text files and the binary snapshot, run from the data directory:
+//   convert [snapshot]  builds the snapshot from the text files
+//   export [snapshot]   writes the text files from the snapshot, e.g. for debugging
+class SnapshotTool {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || !(args[0].equals("convert") || args[0].equals("export"))) {
+            System.err.println("Usage: SnapshotTool convert|export [snapshot-file]");
+            return;
+        }
+        Path snapshotPath = Path.of(args.length > 1 ? args[1] : "platform.snapshot");
+        if (args[0].equals("convert")) {
+            convertFromText(DataDomain.textFiles(), snapshotPath);
+            System.out.println("Converted text files to " + snapshotPath);
+        } else {
+            exportToText(snapshotPath, DataDomain.textFiles());
+            System.out.println("Exported " + snapshotPath + " to text files");
+        }
+    }
+
+    public static void convertFromText(Map<DataDomain, String> files, Path snapshotPath) throws IOException {
+        Map<DataDomain, List<?>> records = new PlatformDataLoader(files).parseOnly();
+        BinarySnapshot.write(snapshotPath, 0, records);
+    }
+
+    public static void exportToText(Path snapshotPath, Map<DataDomain, String> files) throws IOException {
+        exportToText(snapshotPath, files, EnumSet.allOf(DataDomain.class));
+    }
+
+    public static void exportToText(Path snapshotPath, Map<DataDomain, String> files, Set<DataDomain> domains) throws IOException {
+        BinarySnapshot snapshot = BinarySnapshot.open(snapshotPath);
+        for (DataDomain domain : snapshot.getDomains()) {
+            if (!domains.contains(domain)) continue;
+            String fileName = files.get(domain);
+            if (fileName != null) {
+                PlatformTextFormat.writeFile(fileName, domain, snapshot.decode(domain));
+            }
+        }
+    }
+}
+
+// ==================================================================================================================
+// Logging
+// ==================================================================================================================
+// Asynchronous logging. Code logs through a named PlatformLog, usually a static field next to the code, at one of
+// four levels. A message below the threshold costs one volatile read, and one given as a Supplier is never even
+// built. An enabled message is stamped with the time, level, thread and log name and put in a fixed ring buffer;
+// the single platform-log thread formats and writes them, warnings and errors to System.err and the rest to
+// System.out, so no caller ever waits on the console. When the buffer is full, as it can be while bulk work
+// outruns the console, messages are dropped and counted rather than making callers wait, and the writer reports
+// the loss. The threshold comes from the skillsharing.logLevel property (default INFO); quiet() raises it to
+// WARN for bulk loads.
+class PlatformLog {
+    enum Level { DEBUG, INFO, WARN, ERROR, OFF }
+
+    private static final int CAPACITY = 1 << 13;
+    private static final int MASK = CAPACITY - 1;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FLUSH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    // Producers claim a sequence number and publish their event into its slot; the writer takes events in
+    // sequence order, clearing each slot before advancing written, which is what frees it for reuse.
+    private static final AtomicReferenceArray<Event> ring = new AtomicReferenceArray<>(CAPACITY);
+    private static final AtomicLong claimed = new AtomicLong();
+    private static volatile long written;
+    private static volatile boolean writerIdle;
+    private static final LongAdder dropped = new LongAdder();
+    private static volatile Level threshold = parseLevel(System.getProperty("skillsharing.logLevel"));
+    private static final Thread writer = startWriter();
+
+    private final String name;
+
+    private PlatformLog(String name) {
+        this.name = name;
+    }
+
+    public static PlatformLog named(String name) {
+        return new PlatformLog(name);
+    }
+
+    private static final class Event {
+        final long timeMillis;
+        final Level level;
+        final String thread;
+        final String log;
+        final String message;
+
+        Event(Level level, String log, String message) {
+            this.timeMillis = System.currentTimeMillis();
+            this.level = level;
+            this.thread = Thread.currentThread().getName();
+            this.log = log;
+            this.message = message;
+        }
+    }
+
+    private static Level parseLevel(String value) {
+        if (value == null) return Level.INFO;
+        try {
+            return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.compareTo(threshold) >= 0 && level != Level.OFF;
+    }
+
+    public static Level getLevel() {
+        return threshold;
+    }
+
+    // Returns the previous threshold, so a caller can put it back.
+    public static Level setLevel(Level level) {
+        Level previous = threshold;
+        threshold = level;
+        return previous;
+    }
+
+    // Quiet mode for bulk work such as loading data, where every record would otherwise log a line: raises the
+    // threshold to WARN unless it is already higher. Returns the previous threshold for setLevel().
+    public static Level quiet() {
+        Level previous = threshold;
+        if (previous.compareTo(Level.WARN) < 0) {
+            threshold = Level.WARN;
+        }
+        return previous;
+    }
+
+    public static long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public void debug(String message) { log(Level.DEBUG, message); }
+    public void debug(Supplier<String> message) { if (isEnabled(Level.DEBUG)) log(Level.DEBUG, message.get()); }
+    public void info(String message) { log(Level.INFO, message); }
+    public void info(Supplier<String> message) { if (isEnabled(Level.INFO)) log(Level.INFO, message.get()); }
+    public void warn(String message) { log(Level.WARN, message); }
+    public void warn(Supplier<String> message) { if (isEnabled(Level.WARN)) log(Level.WARN, message.get()); }
+    public void error(String message) { log(Level.ERROR, message); }
+    public void error(Supplier<String> message) { if (isEnabled(Level.ERROR)) log(Level.ERROR, message.get()); }
+
+    private void log(Level level, String message) {
+        if (!isEnabled(level)) return;
+        Event event = new Event(level, name, message);
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - written >= CAPACITY) {
+                dropped.increment();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        ring.set((int) (sequence & MASK), event);
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // Waits, up to a few seconds, until everything logged before the call has been written out.
+    public static void flush() {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+        while (written < target && System.nanoTime() < deadline) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(100_000);
+        }
+        System.out.flush();
+        System.err.flush();
+    }
+
+    private static Thread startWriter() {
+        Thread thread = new Thread(PlatformLog::runWriter, "platform-log");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(PlatformLog::flush, "platform-log-flush"));
+        return thread;
+    }
+
+    private static void runWriter() {
+        StringBuilder line = new StringBuilder(256);
+        long next = 0;
+        long reportedDrops = 0;
+        while (true) {
+            int slot = (int) (next & MASK);
+            Event event = ring.get(slot);
+            if (event == null) {
+                System.out.flush();
+                System.err.flush();
+                long drops = dropped.sum();
+                if (drops > reportedDrops) {
+                    System.err.println(Instant.ofEpochMilli(System.currentTimeMillis()) + " WARN  [platform-log] log: " + (drops - reportedDrops)
+                            + " message(s) dropped, the log buffer was full");
+                    reportedDrops = drops;
+                }
+                // A producer that publishes after this flag is set sees it and unparks; the recheck covers
+                // one that published just before.
+                writerIdle = true;
+                if (ring.get(slot) == null) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                writerIdle = false;
+                continue;
+            }
+            ring.set(slot, null);
+            line.setLength(0);
+            line.append(Instant.ofEpochMilli(event.timeMillis)).append(' ').append(event.level);
+            if (event.level.name().length() < 5) line.append(' ');
+            line.append(" [").append(event.thread).append("] ").append(event.log).append(": ").append(event.message);
+            (event.level.compareTo(Level.WARN) >= 0 ? System.err : System.out).println(line);
+            written = ++next;
+        }
+    }
+}
+
+// ==================================================================================================================
+// Metrics
+// ==================================================================================================================
+// Named counters, gauges and latency histograms for the platform's operations. Metrics are created once, usually
+// into static fields next to the code they measure, and recording is lock-free: counters are LongAdders and
+// histograms bump an atomic bucket. Everything is readable over JMX as attributes of the
+// com.skillsharingcommunityplatform:type=Metrics MBean, and startDumping() writes a text report periodically.
+class PlatformMetrics {
+    static final String OBJECT_NAME = "com.skillsharingcommunityplatform:type=Metrics";
+
+    private static final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+    private static ScheduledExecutorService dumpScheduler;
+    private static final PlatformLog log = PlatformLog.named("metrics");
+
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, k -> new LongAdder());
+    }
+
+    // The supplier is called whenever the gauge is read, so it should be cheap; a later gauge of the same
+    // name replaces it.
+    public static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    // Every metric as a flat name/value map: counters and gauges under their names, and each histogram as
+    // name.count, name.mean_us, name.p50_us, name.p90_us, name.p99_us, name.p999_us and name.max_us.
+    public static Map<String, Number> values() {
+        Map<String, Number> values = new LinkedHashMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        histograms.forEach((name, histogram) -> {
+            values.put(name + ".count", histogram.getCount());
+            values.put(name + ".mean_us", histogram.getMeanNanos() / 1000.0);
+            values.put(name + ".p50_us", histogram.getValueAtPercentile(50) / 1000.0);
+            values.put(name + ".p90_us", histogram.getValueAtPercentile(90) / 1000.0);
+            values.put(name + ".p99_us", histogram.getValueAtPercentile(99) / 1000.0);
+            values.put(name + ".p999_us", histogram.getValueAtPercentile(99.9) / 1000.0);
+            values.put(name + ".max_us", histogram.getMaxNanos() / 1000.0);
+        });
+        return values;
+    }
+
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        report.append("# Platform metrics at ").append(Instant.now()).append('\n');
+        counters.forEach((name, counter) -> report.append(name).append(' ').append(counter.sum()).append('\n'));
+        gauges.forEach((name, gauge) -> report.append(name).append(' ').append(gauge.getAsLong()).append('\n'));
+        histograms.forEach((name, histogram) -> report.append(String.format(Locale.ROOT,
+                "%s count=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus%n",
+                name, histogram.getCount(), histogram.getMeanNanos() / 1000.0,
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxNanos() / 1000.0)));
+        return report.toString();
+    }
+
+    public static void registerMBean() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsMBean(), name);
+            }
+        } catch (JMException e) {
+            log.error(() -> "Error registering metrics MBean: " + e.getMessage());
+        }
+    }
+
+    // Rewrites the report file every periodSeconds, through a temporary file so readers never see half a report.
+    public static synchronized void startDumping(Path file, long periodSeconds) {
+        if (dumpScheduler != null || periodSeconds <= 0) return;
+        dumpScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumpScheduler.scheduleAtFixedRate(() -> dump(file), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stopDumping(Path file) {
+        if (dumpScheduler == null) return;
+        dumpScheduler.shutdownNow();
+        dumpScheduler = null;
+        dump(file);
+    }
+
+    private static void dump(Path file) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.writeString(temp, report(), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error(() -> "Error writing metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    // Read-only view of values() for JMX, with a report() operation. The attribute list follows the metrics
+    // that exist when it is asked for.
+    private static class MetricsMBean implements DynamicMBean {
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Number value = values().get(attribute);
+            if (value == null) throw new AttributeNotFoundException(attribute);
+            return value;
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            Map<String, Number> values = values();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                if (values.containsKey(attribute)) {
+                    list.add(new Attribute(attribute, values.get(attribute)));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            if ("report".equals(actionName)) return report();
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            values().forEach((name, value) -> attributes.add(new MBeanAttributeInfo(name, value.getClass().getName(),
+                    name, true, false, false)));
+            MBeanOperationInfo report = new MBeanOperationInfo("report", "All metrics as text",
+                    new MBeanParameterInfo[0], String.class.getName(), MBeanOperationInfo.INFO);
+            return new MBeanInfo(PlatformMetrics.class.getName(), "Skill sharing platform metrics",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[] {report}, null);
+        }
+    }
+}
+
+// Latency histogram with HdrHistogram-style log-linear buckets: each power of two is split into 32 equal
+// buckets, so any recorded value is known to within about 3% across the whole range from nanoseconds to
+// minutes, in a fixed 9 KB of counts. Recording is one atomic bucket increment plus three striped adders;
+// reads walk the buckets and may run concurrently with recording.
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values up to 2^40 ns (about 18 minutes); longer ones are counted in the last bucket.
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    // Records the time since startNanos, a System.nanoTime() taken before the operation.
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucketOf(nanos));
+        totalCount.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public double getMeanNanos() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    // The highest value in the bucket holding the given percentile (0-100), capped at the maximum seen.
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) return BUCKET_COUNT - 1;
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+}
+
+// ==================================================================================================================
+// Background work
+// ==================================================================================================================
+// Threading contract. Manager state is only changed on the single platform thread, in submission order: the
+// startup load and journal replay, every UI action that changes data, and the capture half of a save. A
+// snapshot captured there is therefore consistent with its journal position. The FX thread may read the
+// managers at any time (they are thread-safe) but hands changes to submit()/run(); whatever the UI does with
+// the outcome goes in the success callback, which runs on the FX thread. Manager listeners that feed the UI,
+// such as SessionListModel, marshal onto the FX thread themselves. Work that doesn't touch manager state,
+// like writing an already encoded snapshot, runs on the I/O thread so it never holds up the next change, and
+// CPU-heavy work such as password hashing goes to compute(), which hands any resulting change back to run().
+class PlatformTasks {
+    private static final PlatformLog log = PlatformLog.named("tasks");
+    private final ExecutorService platformThread = newThread("platform-writer");
+    private final ExecutorService ioThread = newThread("platform-io");
+    private final ExecutorService computeThread = newThread("platform-compute");
+
+    private static ExecutorService newThread(String name) {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public <T> Task<T> submit(Callable<T> work, Consumer<T> onSuccess) {
+        return execute(task(work, onSuccess));
+    }
+
+    // Like submit(), for work that reads no manager state that could change under it and changes none.
+    public <T> Task<T> compute(Callable<T> work, Consumer<T> onSuccess) {
+        Task<T> task = logFailures(task(work, onSuccess));
+        computeThread.execute(task);
+        return task;
+    }
+
+    private static <T> Task<T> task(Callable<T> work, Consumer<T> onSuccess) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        if (onSuccess != null) {
+            task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
+        }
+        return task;
+    }
+
+    private static <T> Task<T> logFailures(Task<T> task) {
+        if (task.getOnFailed() == null) {
+            task.setOnFailed(e -> log.error(() -> "Background task failed: " + task.getException()));
+        }
+        return task;
+    }
+
+    public Task<Void> run(Runnable work, Runnable onSuccess) {
+        return submit(() -> {
+            work.run();
+            return null;
+        }, onSuccess == null ? null : ignored -> onSuccess.run());
+    }
+
+    public Task<Void> run(Runnable work) {
+        return run(work, null);
+    }
+
+    // For tasks that report progress or messages themselves. Failures are logged unless the caller handles them.
+    public <T> Task<T> execute(Task<T> task) {
+        platformThread.execute(logFailures(task));
+        return task;
+    }
+
+    // Plain work on the platform thread, with no FX callbacks; usable before the UI exists and after it closes.
+    public void runOnPlatformThread(Runnable work) {
+        platformThread.execute(work);
+    }
+
+    public void runIo(Runnable work) {
+        ioThread.execute(work);
+    }
+
+    // Plain work on the compute thread, with no FX callbacks.
+    public void runCompute(Runnable work) {
+        computeThread.execute(work);
+    }
+
+    // Lets queued work finish, in hand-off order: compute results reach the platform thread and its saves
+    // reach the I/O thread before those stop.
+    public void shutdown(long timeout, TimeUnit unit) {
+        for (ExecutorService executor : List.of(computeThread, platformThread, ioThread)) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(timeout, unit)) {
+                    log.warn("Background work still running at shutdown.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
+
+// Regrades stored quiz attempts in the background when a provider publishes a new version of a quiz. Only the
+// seekers' latest attempts taken on an earlier version of the same shape are regraded, since their answers
+// still line up with the new questions; attempts at a quiz that was rewritten keep their marks. Attempts are
+// scored in chunks on the compute thread, and each chunk's changed marks are stored in one hand-off to the
+// platform thread, so a large cohort never holds up other changes for long and unchanged marks cost nothing.
+class QuizRegrader {
+    static final int CHUNK_SIZE = 2048;
+
+    private static final PlatformLog log = PlatformLog.named("quizzes");
+    private static final LongAdder regradedResults = PlatformMetrics.counter("quiz.regraded");
+
+    private final PlatformTasks tasks;
+
+    public QuizRegrader(PlatformTasks tasks) {
+        this.tasks = tasks;
+    }
+
+    // Call on the platform thread, after the new version has been added.
+    public void regradeFor(CompiledQuiz current) {
+        Map<Integer, Boolean> sameShape = new HashMap<>();
+        List<QuizAttempt> attempts = new ArrayList<>();
+        for (QuizAttempt attempt : QuizAttemptManager.getLatestAttempts(current.getSkillName())) {
+            if (attempt.getDraw() != null || attempt.getQuizVersion() >= current.getVersion()) continue;
+            boolean regradable = sameShape.computeIfAbsent(attempt.getQuizVersion(), version ->
+                    QuizManager.getCompiledQuiz(current.getSkillName(), version).map(current::hasSameShape).orElse(false));
+            if (regradable) {
+                attempts.add(attempt);
+            }
+        }
+        if (attempts.isEmpty()) return;
+        log.info(() -> "Regrading " + attempts.size() + " attempt(s) at the " + current.getSkillName()
+                + " quiz against version " + current.getVersion());
+        regradeChunk(current, attempts, 0, new int[1]);
+    }
+
+    private void regradeChunk(CompiledQuiz quiz, List<QuizAttempt> attempts, int from, int[] changed) {
+        List<QuizAttempt> chunk = attempts.subList(from, Math.min(from + CHUNK_SIZE, attempts.size()));
+        tasks.runCompute(() -> {
+            List<byte[]> answers = new ArrayList<>(chunk.size());
+            for (QuizAttempt attempt : chunk) {
+                answers.add(attempt.getAnswers());
+            }
+            int[] scores = QuizEngine.gradeAll(quiz, answers, false);
+            tasks.runOnPlatformThread(() -> {
+                changed[0] += store(quiz, chunk, scores);
+                int next = from + chunk.size();
+                if (next < attempts.size()) {
+                    regradeChunk(quiz, attempts, next, changed);
+                } else {
+                    log.info(() -> "Regraded the " + quiz.getSkillName() + " quiz: " + changed[0] + " of "
+                            + attempts.size() + " mark(s) changed");
+                }
+            });
+        });
+    }
+
+    // Skips seekers who have made a newer attempt since the regrade started; that one was graded as it came in.
+    private static int store(CompiledQuiz quiz, List<QuizAttempt> chunk, int[] scores) {
+        int changed = 0;
+        for (int i = 0; i < scores.length; i++) {
+            QuizAttempt attempt = chunk.get(i);
+            if (!QuizAttemptManager.isLatest(attempt)) continue;
+            int score = scores[i];
+            boolean same = ResultManager.getResultForSeekerAndSkill(attempt.getSeekerId(), quiz.getSkillName())
+                    .map(result -> result.getMarks() == score).orElse(false);
+            if (!same) {
+                ResultManager.addResult(new Result(attempt.getSeekerId(), quiz.getSkillName(), score));
+                changed++;
+            }
+        }
+        regradedResults.add(changed);
+        return changed;
+    }
+}
+
+// ==================================================================================================================
+// UI models
+// ==================================================================================================================
+// The one observable list of sessions shared by every screen, kept in step with SessionManager through change
+// events instead of being rebuilt. Events from any thread are collected and applied on the FX thread in one
+// pass per pulse: a new session is appended and a changed one is replaced in place, so the ListView redraws
+// just that row. Screens filter and sort it through FilteredList/SortedList views rather than copying it.
+class SessionListModel implements SessionChangeListener {
+    private final ObservableList<Session> sessions = FXCollections.observableArrayList();
+    private final ObservableList<Session> readOnlySessions = FXCollections.unmodifiableObservableList(sessions);
+    private final Map<Session, Integer> rowBySession = new IdentityHashMap<>();
+    // Sessions touched since the last flush, in event order; true if the session was added rather than changed.
+    private final Map<Session, Boolean> pending = new LinkedHashMap<>();
+    private boolean resetPending;
+    private boolean flushScheduled;
+
+    // Must be created on the FX thread.
+    public SessionListModel() {
+        // Register first so nothing added while the initial rows are read is missed; duplicates are harmless.
+        SessionManager.addListener(this);
+        synchronized (this) {
+            resetPending = true;
+        }
+        flush();
+    }
+
+    public ObservableList<Session> getSessions() {
+        return readOnlySessions;
+    }
+
+    @Override
+    public void sessionAdded(Session session) {
+        enqueue(session, true);
+    }
+
+    @Override
+    public void sessionChanged(Session session) {
+        enqueue(session, false);
+    }
+
+    @Override
+    public void sessionsCleared() {
+        synchronized (this) {
+            pending.clear();
+            resetPending = true;
+        }
+        scheduleFlush();
+    }
+
+    private void enqueue(Session session, boolean added) {
+        synchronized (this) {
+            pending.merge(session, added, Boolean::logicalOr);
+        }
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        synchronized (this) {
+            if (flushScheduled) return;
+            flushScheduled = true;
+        }
+        // Deferred even on the FX thread, so a handler that changes several sessions produces one update.
+        Platform.runLater(this::flush);
+    }
+
+    private void flush() {
+        Map<Session, Boolean> batch;
+        boolean reset;
+        synchronized (this) {
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+            reset = resetPending;
+            resetPending = false;
+            flushScheduled = false;
+        }
+        if (reset) {
+            List<Session> all = SessionManager.getAllSessions();
+            rowBySession.clear();
+            for (int i = 0; i < all.size(); i++) {
+                rowBySession.put(all.get(i), i);
+            }
+            sessions.setAll(all);
+        }
+        for (Map.Entry<Session, Boolean> entry : batch.entrySet()) {
+            Session session = entry.getKey();
+            Integer row = rowBySession.get(session);
+            if (row != null) {
+                sessions.set(row, session);
+            } else if (entry.getValue()) {
+                rowBySession.put(session, sessions.size());
+                sessions.add(session);
+            }
+            // A change to a session the model never saw added (e.g. one outside SessionManager) is ignored.
+        }
+    }
+}
+
+// Type-ahead search over the session catalog for one screen. Keystrokes restart a short debounce; the query
+// then runs on the background executor and its page is published on the FX thread, unless a newer query has
+// started in the meantime. Only touched from the FX thread, apart from the index lookup itself.
+class CatalogSearch {
+    static final int PAGE_SIZE = 25;
+    private static final Duration DEBOUNCE = Duration.millis(250);
+
+    private final SessionSearchIndex index;
+    private final Executor executor;
+    private final Consumer<SearchPage> onPage;
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
+    private final AtomicLong generation = new AtomicLong();
+    private String query = "";
+    private boolean openOnly;
+    private int page;
+    private SearchPage lastPage;
+
+    public CatalogSearch(SessionSearchIndex index, Executor executor, Consumer<SearchPage> onPage) {
+        this.index = index;
+        this.executor = executor;
+        this.onPage = onPage;
+        debounce.setOnFinished(e -> runQuery());
+    }
+
+    public void setQuery(String query, boolean openOnly) {
+        this.query = query;
+        this.openOnly = openOnly;
+        this.page = 0;
+        debounce.playFromStart();
+    }
+
+    public void setOpenOnly(boolean openOnly) {
+        this.openOnly = openOnly;
+        this.page = 0;
+        runQuery();
+    }
+
+    public void nextPage() {
+        if (lastPage != null && page + 1 < lastPage.getPageCount()) {
+            page++;
+            runQuery();
+        }
+    }
+
+    public void previousPage() {
+        if (page > 0) {
+            page--;
+            runQuery();
+        }
+    }
+
+    // Re-runs the current query, e.g. after an enrollment changed the ranking or the free places shown.
+    public void refresh() {
+        runQuery();
+    }
+
+    // Drops pending and in-flight queries.
+    public void cancel() {
+        debounce.stop();
+        generation.incrementAndGet();
+    }
+
+    private void runQuery() {
+        debounce.stop();
+        long ticket = generation.incrementAndGet();
+        String currentQuery = query;
+        boolean currentOpenOnly = openOnly;
+        int currentPage = page;
+        executor.execute(() -> {
+            SearchPage result = index.search(currentQuery, currentOpenOnly, currentPage, PAGE_SIZE);
+            Platform.runLater(() -> {
+                if (ticket != generation.get()) return;
+                lastPage = result;
+                onPage.accept(result);
+            });
+        });
+    }
+}
+
+public class SkillSharingApp extends Application {
+
+    private Stage primaryStage;
+    private AbstractPerson currentUser;
+    private Map<String, AbstractPerson> registeredUsers = new ConcurrentHashMap<>();
+
+    private static final String SNAPSHOT_FILE = "platform.snapshot";
+    private static final String JOURNAL_FILE = "journal.log";
+    private static final String ID_FILE = "ids.properties";
+    private static final String METRICS_FILE = "metrics.txt";
+    private static final long METRICS_DUMP_SECONDS = Long.getLong("skillsharing.metricsDumpSeconds", 60);
+    // Journal position of the legacy text-file snapshot; superseded by the sequence in the binary snapshot header.
+    private static final String SNAPSHOT_SEQUENCE_FILE = "snapshot.seq";
+    private static final boolean EXPORT_TEXT = Boolean.getBoolean("skillsharing.exportText");
+    // Autosave waits for this long without changes, but never longer than the maximum delay during a burst.
+    private static final long AUTOSAVE_QUIET_MILLIS = 2_000;
+    private static final long AUTOSAVE_MAX_DELAY_MILLIS = 30_000;
+    // Five failed logins in a row per ID or name, then one more every 30 seconds.
+    private static final int LOGIN_FAILURE_BURST = 5;
+    private static final long LOGIN_FAILURE_REFILL_MILLIS = 30_000;
+    private static final int LOGIN_LIMITER_MAX_BUCKETS = 10_000;
+    private static final int PRACTICE_QUIZ_QUESTIONS = 10;
+
+    private static final PlatformLog log = PlatformLog.named("app");
+    private static final LatencyHistogram loadTimer = PlatformMetrics.histogram("data.load");
+    private static final LatencyHistogram replayTimer = PlatformMetrics.histogram("data.replay");
+    private static final LatencyHistogram saveCaptureTimer = PlatformMetrics.histogram("data.save.capture");
+    private static final LatencyHistogram saveWriteTimer = PlatformMetrics.histogram("data.save.write");
+    private static final LongAdder failedSaves = PlatformMetrics.counter("data.save.failed");
+    private static final LatencyHistogram gradeTimer = PlatformMetrics.histogram("quiz.grade");
+    private static final LatencyHistogram loginTimer = PlatformMetrics.histogram("login.check");
+    private static final LongAdder successfulLogins = PlatformMetrics.counter("login.success");
+    private static final LongAdder failedLogins = PlatformMetrics.counter("login.failure");
+    private static final LongAdder limitedLogins = PlatformMetrics.counter("login.limited");
+
+    private final PlatformTasks platformTasks = new PlatformTasks();
+    private final QuizRegrader quizRegrader = new QuizRegrader(platformTasks);
+    private final LoginRateLimiter loginRateLimiter = new LoginRateLimiter(LOGIN_FAILURE_BURST, LOGIN_FAILURE_REFILL_MILLIS, LOGIN_LIMITER_MAX_BUCKETS);
+    private final Object saveLock = new Object();
+    private CompletableFuture<Boolean> queuedSave;
+    private ScheduledExecutorService autosaveScheduler;
+    private long unsavedSinceNanos;
+    // Save state. The encoded section of each domain at the version it was encoded, the journal sequence and
+    // the total change count of the last captured save are only touched on the platform thread; the domains
+    // whose text files are behind the snapshot only on the I/O thread.
+    private final Map<DataDomain, byte[]> savedSections = new EnumMap<>(DataDomain.class);
+    private final Map<DataDomain, Long> savedVersions = new EnumMap<>(DataDomain.class);
+    private long savedSequence = -1;
+    private volatile long savedChangeCount;
+    private final Set<DataDomain> unexportedDomains = EnumSet.allOf(DataDomain.class);
+    private long snapshotSequence;
+    // Set once the snapshot is loaded and the journal replayed; nothing is saved before, so a failed startup
+    // never writes a partial state over the stored data.
+    private volatile boolean dataLoaded;
+    // Set when the startup replay skipped records whose user or session was missing. The loaded state may then
+    // be short of what the journal describes, so its segments are kept on disk for recovery instead of being
+    // discarded once a snapshot covers them.
+    private volatile boolean degradedLoad;
+    private SessionListModel sessionListModel;
+    private SessionSearchIndex sessionSearchIndex;
+    private ExecutorService searchExecutor;
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    // Shows a progress screen while the snapshot is loaded and the journal replayed on the platform thread,
+    // then opens the journal and builds the shared UI models on the FX thread.
+    @Override
+    public void start(Stage primaryStage) {
+        this.primaryStage = primaryStage;
+        primaryStage.setTitle("Skill Sharing Community Platform");
+        Task<Long> loadTask = new Task<>() {
+            @Override
+            protected Long call() throws IOException {
+                updateMessage("Loading platform data...");
+                long start = System.nanoTime();
+                boolean idsLoaded = IdAllocator.load(Path.of(ID_FILE));
+                loadData();
+                if (!idsLoaded) {
+                    registeredUsers.keySet().forEach(IdAllocator::observe);
+                }
+                loadTimer.recordSince(start);
+                updateMessage("Applying recent changes...");
+                start = System.nanoTime();
+                long lastSequence;
+                PlatformLog.Level level = PlatformLog.quiet();
+                try {
+                    lastSequence = PlatformJournal.replay(JOURNAL_FILE, snapshotSequence, SkillSharingApp.this::applyJournalRecord);
+                } finally {
+                    PlatformLog.setLevel(level);
+                }
+                replayTimer.recordSince(start);
+                log.info(() -> "Journal replayed through sequence " + lastSequence);
+                if (degradedLoad) {
+                    log.warn("Some journal records could not be applied; journal segments will be kept after saves.");
+                }
+                dataLoaded = true;
+                return lastSequence;
+            }
+        };
+        loadTask.setOnSucceeded(e -> {
+            startJournal(loadTask.getValue());
+            PlatformMetrics.gauge("users", registeredUsers::size);
+            PlatformMetrics.gauge("log.dropped", PlatformLog::getDroppedCount);
+            PlatformMetrics.registerMBean();
+            PlatformMetrics.startDumping(Path.of(METRICS_FILE), METRICS_DUMP_SECONDS);
+            sessionListModel = new SessionListModel();
+            sessionSearchIndex = new SessionSearchIndex();
+            searchExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "catalog-search");
+                thread.setDaemon(true);
+                return thread;
+            });
+            primaryStage.setOnCloseRequest(this::saveAndExit);
+            showLoginScreen();
+        });
+        loadTask.setOnFailed(e -> {
+            log.error(() -> "Error loading platform data: " + loadTask.getException());
+            showAlert("Load Error", "Platform data could not be loaded:\n" + loadTask.getException().getMessage());
+            Platform.exit();
+        });
+        showProgressScreen("Starting up", loadTask.messageProperty());
+        platformTasks.execute(loadTask);
+    }
+
+    // Closing the window saves in the background behind a progress screen, then exits.
+    private void saveAndExit(WindowEvent event) {
+        event.consume();
+        showProgressScreen("Saving", new SimpleStringProperty("Saving your data..."));
+        requestSave().whenComplete((saved, error) -> Platform.runLater(Platform::exit));
+    }
+
+    // Also reached without a close request (e.g. Platform.exit() elsewhere), so anything still unsaved is
+    // saved here, waiting for it; after saveAndExit() there is nothing left to do.
+    @Override
+    public void stop() {
+        if (autosaveScheduler != null) {
+            autosaveScheduler.shutdownNow();
+        }
+        if (searchExecutor != null) {
+            searchExecutor.shutdownNow();
+        }
+        if (DataDomain.getChangeCount() != savedChangeCount) {
+            try {
+                requestSave().get(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                log.error(() -> "Error saving on exit: " + e);
+            }
+        }
+        platformTasks.shutdown(1, TimeUnit.MINUTES);
+        PlatformJournal.close();
+        PlatformMetrics.stopDumping(Path.of(METRICS_FILE));
+        log.info("Application stopped and data saved.");
+        PlatformLog.flush();
+    }
+
+    // Opens the journal after the startup replay and starts autosave.
+    private void startJournal(long lastSequence) {
+        PlatformJournal.open(JOURNAL_FILE, lastSequence);
+
+        autosaveScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        autosaveScheduler.scheduleWithFixedDelay(this::autosave, 1, 1, TimeUnit.SECONDS);
+    }
+
+    // Saves once changes have been quiet for a moment, or once they have been unsaved for the maximum delay
+    // during a steady stream of changes. Every change is already in the journal, so this only bounds how much
+    // of it is replayed after a crash and how stale the exported text files get.
+    private void autosave() {
+        if (DataDomain.getChangeCount() == savedChangeCount) {
+            unsavedSinceNanos = 0;
+            return;
+        }
+        long now = System.nanoTime();
+        if (unsavedSinceNanos == 0) {
+            unsavedSinceNanos = now;
+        }
+        if (now - DataDomain.getLastChangeNanos() >= TimeUnit.MILLISECONDS.toNanos(AUTOSAVE_QUIET_MILLIS)
+                || now - unsavedSinceNanos >= TimeUnit.MILLISECONDS.toNanos(AUTOSAVE_MAX_DELAY_MILLIS)) {
+            unsavedSinceNanos = 0;
+            requestSave();
+        }
+    }
+
+    // Saves a snapshot and compacts the journal without blocking the caller. Requests made before a queued
+    // save has started share it, so bursts coalesce into one save. The state is captured on the platform
+    // thread, between changes: only the domains whose version moved since the last save are encoded again, the
+    // rest reuse their encoded sections. The file is written on the I/O thread.
+    private CompletableFuture<Boolean> requestSave() {
+        if (!dataLoaded) {
+            return CompletableFuture.completedFuture(false);
+        }
+        synchronized (saveLock) {
+            if (queuedSave != null) return queuedSave;
+            CompletableFuture<Boolean> save = new CompletableFuture<>();
+            queuedSave = save;
+            platformTasks.runOnPlatformThread(() -> {
+                synchronized (saveLock) {
+                    queuedSave = null;
+                }
+                try {
+                    long start = System.nanoTime();
+                    long sequence = PlatformJournal.rotate();
+                    long changeCount = DataDomain.getChangeCount();
+                    Map<DataDomain, Long> versions = new EnumMap<>(DataDomain.class);
+                    for (DataDomain domain : DataDomain.values()) {
+                        long version = domain.getVersion();
+                        if (!savedSections.containsKey(domain) || savedVersions.get(domain) != version) {
+                            versions.put(domain, version);
+                        }
+                    }
+                    if (versions.isEmpty() && sequence == savedSequence) {
+                        save.complete(true);
+                        return;
+                    }
+                    savedSections.putAll(BinarySnapshot.encodeSections(collectData(registeredUsers, versions.keySet())));
+                    savedVersions.putAll(versions);
+                    savedSequence = sequence;
+                    savedChangeCount = changeCount;
+                    Map<DataDomain, byte[]> sections = new EnumMap<>(savedSections);
+                    Set<DataDomain> changed = EnumSet.noneOf(DataDomain.class);
+                    changed.addAll(versions.keySet());
+                    saveCaptureTimer.recordSince(start);
+                    platformTasks.runIo(() -> save.complete(writeSnapshot(sequence, sections, changed)));
+                } catch (IOException | RuntimeException e) {
+                    log.error(() -> "Error capturing snapshot: " + e.getMessage());
+                    failedSaves.increment();
+                    save.complete(false);
+                }
+            });
+            return save;
+        }
     }
 
-    @Override
-    public void enrollInSession(Session session) {
-        System.out.println(getName() + " (Skill Provider) cannot enroll in sessions. Only Skill Seekers can enroll.");
+    private long readSnapshotSequence() {
+        try (BufferedReader reader = new BufferedReader(new FileReader(SNAPSHOT_SEQUENCE_FILE))) {
+            String line = reader.readLine();
+            return line == null ? 0 : Long.parseLong(line.trim());
+        } catch (FileNotFoundException e) {
+            return 0;
+        } catch (IOException | NumberFormatException e) {
+            log.error(() -> "Error reading snapshot sequence: " + e.getMessage());
+            return 0;
+        }
     }
 
-    @Override
-    public void rateSession(Session session, int rating) {
-        System.out.println(getName() + " (Skill Provider) cannot rate sessions.");
+    private void applyJournalRecord(JournalRecord record) {
+        switch (record.getType()) {
+            case REGISTER_USER: {
+                String id = record.getField(1);
+                IdAllocator.observe(id);
+                AbstractPerson person = "seeker".equals(record.getField(0))
+                        ? new SkillSeeker(id, record.getField(2), record.getField(3), null)
+                        : new SkillProvider(id, record.getField(2), record.getField(3));
+                registeredUsers.put(id, person);
+                UserNameIndex.add(person);
+                DataDomain.USERS.markChanged();
+                break;
+            }
+            case ADD_SESSION: {
+                int capacity = record.getFieldCount() > 5 ? Integer.parseInt(record.getField(5)) : Session.DEFAULT_CAPACITY;
+                SessionManager.addSession(new Session(record.getField(0), record.getField(1), record.getField(2),
+                        record.getField(3), Integer.parseInt(record.getField(4)), capacity));
+                break;
+            }
+            case ENROLL: {
+                AbstractPerson person = registeredUsers.get(record.getField(0));
+                Optional<Session> session = SessionManager.getSessionBySkillCode(record.getField(1));
+                if (person instanceof SkillSeeker && session.isPresent()) {
+                    ((SkillSeeker) person).enrollInSession(session.get());
+                } else {
+                    skipJournalRecord(record);
+                }
+                break;
+            }
+            case RATE: {
+                AbstractPerson person = registeredUsers.get(record.getField(0));
+                Optional<Session> session = SessionManager.getSessionBySkillCode(record.getField(1));
+                if (person instanceof SkillSeeker && session.isPresent()) {
+                    // Records written before ratings were timed carry no time; they count as rated now.
+                    long ratedAt = record.getFieldCount() > 3 ? Long.parseLong(record.getField(3)) : System.currentTimeMillis();
+                    ((SkillSeeker) person).rateSession(session.get(), Integer.parseInt(record.getField(2)), ratedAt);
+                } else {
+                    skipJournalRecord(record);
+                }
+                break;
+            }
+            case ADD_REQUEST:
+                RequestedSessionManager.addRequest(new RequestedSession(record.getField(0), record.getField(1),
+                        record.getField(2), Integer.parseInt(record.getField(3))));
+                break;
+            case REMOVE_REQUEST:
+                // Written before requests kept their history; the outcome wasn't recorded, so close it as denied.
+                RequestedSessionManager.denyRequest(new RequestedSession(record.getField(0), record.getField(1),
+                        record.getField(2), Integer.parseInt(record.getField(3))));
+                break;
+            case SET_REQUEST_STATUS: {
+                RequestedSession request = new RequestedSession(record.getField(0), record.getField(1),
+                        record.getField(2), Integer.parseInt(record.getField(3)));
+                if (RequestStatus.parse(record.getField(4)) == RequestStatus.FULFILLED) {
+                    RequestedSessionManager.fulfillRequest(request);
+                } else {
+                    RequestedSessionManager.denyRequest(request);
+                }
+                break;
+            }
+            case ADD_RESULT:
+                ResultManager.addResult(new Result(record.getField(0), record.getField(1), Integer.parseInt(record.getField(2))));
+                break;
+            case ADD_LECTURE:
+                LectureManager.addLecture(new Lecture(record.getField(0), record.getField(1)));
+                break;
+            case ADD_QUIZ:
+                QuizManager.addQuiz(Quiz.fromString(record.getField(0)));
+                break;
+            case ADD_QUIZ_ATTEMPT:
+                QuizAttemptManager.addAttempt(new QuizAttempt(record.getField(0), record.getField(1),
+                        Integer.parseInt(record.getField(2)), QuizAttempt.decodeAnswers(record.getField(3)),
+                        record.getFieldCount() > 4 && !record.getField(4).isEmpty() ? QuizDraw.fromString(record.getField(4)) : null));
+                break;
+            case ADD_BANK_QUESTION: {
+                BankQuestion question = BankQuestion.fromString(record.getField(0));
+                if (question != null) {
+                    QuestionBankManager.addQuestion(question);
+                }
+                break;
+            }
+            case ADD_ASSIGNMENT:
+                AssignmentManager.addAssignment(new Assignment(record.getField(0), record.getField(1)));
+                break;
+            case SUBMIT_ASSIGNMENT: {
+                Assignment submission = new Assignment(record.getField(0), record.getField(1));
+                submission.setSubmittedByUserId(record.getField(2));
+                submission.setFilePath(record.getField(3));
+                AssignmentManager.addSubmission(submission);
+                break;
+            }
+            case SET_PASSWORD_HASH: {
+                AbstractPerson person = registeredUsers.get(record.getField(0));
+                if (person != null) {
+                    person.setPasswordHash(record.getField(1));
+                    DataDomain.USERS.markChanged();
+                } else {
+                    skipJournalRecord(record);
+                }
+                break;
+            }
+        }
     }
 
-    @Override
-    public void checkRatings(String skillName) {
-        SessionManager.getSessionBySkillName(skillName).ifPresentOrElse(
-                session -> System.out.println("Current average rating for '" + skillName + "': " + String.format("%.1f", session.getAverageSkillRating())),
-                () -> System.out.println("Session '" + skillName + "' not found to check ratings.")
-        );
+    private void skipJournalRecord(JournalRecord record) {
+        degradedLoad = true;
+        log.warn(() -> "Skipping journal record " + record.getSequence() + " (" + record.getType() + "): its user or session is missing");
     }
-}
-
-public class SkillSharingApp extends Application {
-
-    private Stage primaryStage;
-    private AbstractPerson currentUser;
-    private Map<String, AbstractPerson> registeredUsers = new HashMap<>();
-
-    private static final String USERS_FILE = "users.txt";
-    private static final String SESSIONS_FILE = "sessions.txt";
-    private static final String REQUESTS_FILE = "requests.txt";
-    private static final String RESULTS_FILE = "results.txt";
-    private static final String LECTURES_FILE = "lectures.txt";
-    private static final String QUIZZES_FILE = "quizzes.txt";
-    private static final String ASSIGNMENTS_FILE = "assignments.txt";
-    private static final String SUBMISSIONS_FILE = "submissions.txt";
 
-    public static void main(String[] args) {
-        launch(args);
-    }
+    // Placeholder scene while the platform thread is busy loading or saving; the window stays responsive.
+    private void showProgressScreen(String title, ObservableValue<String> message) {
+        VBox root = new VBox(20);
+        root.setAlignment(Pos.CENTER);
+        root.setPadding(new Insets(40));
 
-    @Override
-    public void start(Stage primaryStage) {
-        this.primaryStage = primaryStage;
-        primaryStage.setTitle("Skill Sharing Community Platform");
-        AbstractPerson.resetIdSequences();
-        loadData();
-        showLoginScreen();
-    }
+        Label titleLabel = new Label(title);
+        titleLabel.getStyleClass().add("title-label");
+        ProgressIndicator progressIndicator = new ProgressIndicator();
+        Label messageLabel = new Label();
+        messageLabel.textProperty().bind(message);
 
-    @Override
-    public void stop() {
-        saveData();
-        System.out.println("Application stopped and data saved.");
+        root.getChildren().addAll(titleLabel, progressIndicator, messageLabel);
+        Scene scene = new Scene(root, 400, 450);
+        scene.getStylesheets().add(ModernisticTheme.CSS);
+        primaryStage.setScene(scene);
+        primaryStage.show();
     }
 
     private void showLoginScreen() {
@@ -815,7 +5551,8 @@ public class SkillSharingApp extends Application {
             String name = nameInput.getText().trim();
             String password = passwordInput.getText();
             if (!id.isEmpty() && !name.isEmpty() && !password.isEmpty()) {
-                authenticateUser(id, name, password);
+                loginButton.setDisable(true);
+                authenticateUser(id, name, password, () -> loginButton.setDisable(false));
             } else {
                 showAlert("Input Error", "Please enter ID, Name, and Password to login.");
             }
@@ -833,19 +5570,63 @@ public class SkillSharingApp extends Application {
         primaryStage.show();
     }
 
-    private void authenticateUser(String id, String name, String password) {
-        if (registeredUsers.containsKey(id)) {
-            AbstractPerson person = registeredUsers.get(id);
-            if (Objects.equals(person.getName(), name) && Objects.equals(person.getPassword(), password)) {
+    // The password is checked off the FX thread, since hashing is slow by design. A successful login also
+    // upgrades a plain password, or a hash made with fewer iterations than currently configured; the new hash
+    // is computed with the check and stored through the platform thread. Failures, including unknown IDs, are
+    // rate limited per ID and per name, and a limited attempt is refused before any hashing. onDone runs on the
+    // FX thread either way.
+    private void authenticateUser(String id, String name, String password, Runnable onDone) {
+        long waitSeconds = loginRateLimiter.secondsUntilAllowed(id, name);
+        if (waitSeconds > 0) {
+            limitedLogins.increment();
+            onDone.run();
+            showAlert("Login Failed", "Too many failed login attempts. Please try again in " + waitSeconds + " second(s).");
+            return;
+        }
+        AbstractPerson person = registeredUsers.get(id);
+        if (person == null) {
+            failedLogins.increment();
+            loginRateLimiter.recordFailure(id, name);
+            onDone.run();
+            showAlert("Login Failed", "User with ID: " + id + " not found. Please create an account.");
+            return;
+        }
+        String storedHash = person.getPasswordHash();
+        Task<Boolean> check = platformTasks.compute(() -> {
+            long start = System.nanoTime();
+            boolean verified = Objects.equals(person.getName(), name) && PasswordHasher.verify(password, storedHash);
+            loginTimer.recordSince(start);
+            if (!verified) {
+                return false;
+            }
+            if (PasswordHasher.needsRehash(storedHash)) {
+                String upgradedHash = PasswordHasher.hash(password);
+                platformTasks.run(() -> {
+                    person.setPasswordHash(upgradedHash);
+                    DataDomain.USERS.markChanged();
+                    PlatformJournal.append(JournalRecord.Type.SET_PASSWORD_HASH, id, upgradedHash);
+                });
+            }
+            return true;
+        }, verified -> {
+            onDone.run();
+            if (verified) {
+                successfulLogins.increment();
+                loginRateLimiter.recordSuccess(id, name);
                 currentUser = person;
                 currentUser.login();
                 showMainScreen();
             } else {
+                failedLogins.increment();
+                loginRateLimiter.recordFailure(id, name);
                 showAlert("Login Failed", "Incorrect name or password for ID: " + id + ". Please try again.");
             }
-        } else {
-            showAlert("Login Failed", "User with ID: " + id + " not found. Please create an account.");
-        }
+        });
+        check.setOnFailed(e -> {
+            onDone.run();
+            log.error(() -> "Error checking password: " + check.getException());
+            showAlert("Login Failed", "Your password could not be checked. Please try again.");
+        });
     }
 
     private void showCreateAccountScreen() {
@@ -893,16 +5674,32 @@ public class SkillSharingApp extends Application {
                 showAlert("Input Error", "Please enter your Name, Password, and select a role.");
                 return;
             }
-            String generatedId = AbstractPerson.generateUniqueId(type);
-            if (type.equals("seeker")) {
-                currentUser = new SkillSeeker(generatedId, name, password, null, null);
-            } else {
-                currentUser = new SkillProvider(generatedId, name, password);
-            }
-            registeredUsers.put(generatedId, currentUser);
-            currentUser.login();
-            showAlert("Registration Success", "Account created successfully for " + name + " as " + type + ".\nYour ID is: " + generatedId);
-            showMainScreen();
+            String role = type;
+            registerButton.setDisable(true);
+            Task<String> hashing = platformTasks.compute(() -> PasswordHasher.hash(password), passwordHash -> {
+                registerButton.setDisable(false);
+                String generatedId = IdAllocator.next(role);
+                if (role.equals("seeker")) {
+                    currentUser = new SkillSeeker(generatedId, name, passwordHash, null);
+                } else {
+                    currentUser = new SkillProvider(generatedId, name, passwordHash);
+                }
+                AbstractPerson newUser = currentUser;
+                platformTasks.run(() -> {
+                    registeredUsers.put(generatedId, newUser);
+                    UserNameIndex.add(newUser);
+                    DataDomain.USERS.markChanged();
+                    PlatformJournal.append(JournalRecord.Type.REGISTER_USER, role, generatedId, name, passwordHash);
+                });
+                currentUser.login();
+                showAlert("Registration Success", "Account created successfully for " + name + " as " + role + ".\nYour ID is: " + generatedId);
+                showMainScreen();
+            });
+            hashing.setOnFailed(failed -> {
+                registerButton.setDisable(false);
+                log.error(() -> "Error hashing password: " + hashing.getException());
+                showAlert("Registration Failed", "Your account could not be created. Please try again.");
+            });
         });
 
         Button backToLoginButton = new Button("Back to Login");
@@ -977,9 +5774,11 @@ public class SkillSharingApp extends Application {
         sessionSection.getStyleClass().add("card");
         Label sessionsLabel = new Label("Available Sessions:");
         sessionsLabel.getStyleClass().add("subtitle-label");
-        ListView<Session> sessionListView = new ListView<>();
+        // Live views over the shared session model: an enrollment elsewhere updates just the affected row here.
+        FilteredList<Session> filteredSessions = new FilteredList<>(sessionListModel.getSessions());
+        SortedList<Session> sortedSessions = new SortedList<>(filteredSessions);
+        ListView<Session> sessionListView = new ListView<>(sortedSessions);
         sessionListView.setPrefHeight(150);
-        updateSessionList(sessionListView);
 
         sessionListView.setCellFactory(lv -> new ListCell<Session>() {
             @Override
@@ -988,25 +5787,108 @@ public class SkillSharingApp extends Application {
                 if (empty || session == null) {
                     setText(null);
                 } else {
-                    setText(session.toString());
+                    setText(session.getSummary());
                 }
             }
         });
 
+        HBox sessionViewControls = new HBox(10);
+        sessionViewControls.setAlignment(Pos.CENTER_LEFT);
+        // Searching swaps the list over to a page of ranked results; clearing the search brings back the live view.
+        TextField searchInput = new TextField();
+        searchInput.setPromptText("Search by skill, code, instructor or timing");
+        Label pageLabel = new Label();
+        Button previousPageButton = new Button("< Previous");
+        Button nextPageButton = new Button("Next >");
+        HBox pagingControls = new HBox(10, previousPageButton, pageLabel, nextPageButton);
+        pagingControls.setAlignment(Pos.CENTER_LEFT);
+        pagingControls.setVisible(false);
+        pagingControls.setManaged(false);
+        CatalogSearch catalogSearch = new CatalogSearch(sessionSearchIndex, searchExecutor, page -> {
+            sessionListView.setItems(FXCollections.observableArrayList(page.getResults()));
+            pagingControls.setVisible(true);
+            pagingControls.setManaged(true);
+            pageLabel.setText("Page " + (page.getPage() + 1) + " of " + page.getPageCount() + " (" + page.getTotalMatches() + " matches)");
+            previousPageButton.setDisable(page.getPage() == 0);
+            nextPageButton.setDisable(page.getPage() + 1 >= page.getPageCount());
+        });
+        previousPageButton.setOnAction(e -> catalogSearch.previousPage());
+        nextPageButton.setOnAction(e -> catalogSearch.nextPage());
+
+        CheckBox openOnlyCheckBox = new CheckBox("Only sessions with free places");
+        openOnlyCheckBox.selectedProperty().addListener((obs, wasSelected, selected) -> {
+            filteredSessions.setPredicate(selected ? session -> !session.isFull() : null);
+            if (!searchInput.getText().isBlank()) {
+                catalogSearch.setOpenOnly(selected);
+            }
+        });
+        searchInput.textProperty().addListener((obs, oldText, text) -> {
+            if (text.isBlank()) {
+                catalogSearch.cancel();
+                sessionListView.setItems(sortedSessions);
+                pagingControls.setVisible(false);
+                pagingControls.setManaged(false);
+            } else {
+                catalogSearch.setQuery(text, openOnlyCheckBox.isSelected());
+            }
+        });
+        ComboBox<String> sortCombo = new ComboBox<>();
+        sortCombo.getItems().addAll("Newest last", "Skill name", "Highest rated", "Highest rated recently", "Most free places");
+        sortCombo.getSelectionModel().selectFirst();
+        sortCombo.getSelectionModel().selectedItemProperty().addListener((obs, oldOrder, order) -> {
+            if ("Skill name".equals(order)) {
+                sortedSessions.setComparator(Comparator.comparing(Session::getSkillName, String.CASE_INSENSITIVE_ORDER));
+            } else if ("Highest rated".equals(order)) {
+                sortedSessions.setComparator(Comparator.comparingDouble(Session::getAverageSkillRating).reversed());
+            } else if ("Highest rated recently".equals(order)) {
+                sortedSessions.setComparator(Comparator.comparingDouble(Session::getDecayedSkillRating).reversed());
+            } else if ("Most free places".equals(order)) {
+                sortedSessions.setComparator(Comparator.comparingInt((Session session) -> session.getCapacity() - session.getCurrentEnrollmentCount()).reversed());
+            } else {
+                sortedSessions.setComparator(null);
+            }
+        });
+        sessionViewControls.getChildren().addAll(new Label("Sort by:"), sortCombo, openOnlyCheckBox);
+
         HBox enrollControls = new HBox(10);
         enrollControls.setAlignment(Pos.CENTER_LEFT);
         Button enrollButton = new Button("Enroll in Selected Session");
         enrollButton.setOnAction(e -> {
             Session selectedSession = sessionListView.getSelectionModel().getSelectedItem();
             if (selectedSession != null) {
-                ((SkillSeeker) currentUser).enrollInSession(selectedSession);
-                updateSessionList(sessionListView);
+                SkillSeeker seeker = (SkillSeeker) currentUser;
+                platformTasks.run(() -> seeker.enrollInSession(selectedSession), () -> {
+                    if (!searchInput.getText().isBlank()) {
+                        catalogSearch.refresh();
+                    }
+                });
             } else {
                 showAlert("Selection Error", "Please select a session to enroll in.");
             }
         });
-        enrollControls.getChildren().addAll(enrollButton);
-        sessionSection.getChildren().addAll(sessionsLabel, sessionListView, enrollControls);
+        ComboBox<Integer> ratingCombo = new ComboBox<>();
+        ratingCombo.getItems().addAll(5, 4, 3, 2, 1);
+        ratingCombo.setPromptText("Stars");
+        Button rateButton = new Button("Rate Selected Session");
+        rateButton.setOnAction(e -> {
+            Session selectedSession = sessionListView.getSelectionModel().getSelectedItem();
+            Integer rating = ratingCombo.getValue();
+            if (selectedSession == null || rating == null) {
+                showAlert("Selection Error", "Please select a session and a rating.");
+                return;
+            }
+            if (!selectedSession.isUserEnrolled(currentUser.getId())) {
+                showAlert("Rating Error", "You can only rate sessions you are enrolled in.");
+                return;
+            }
+            SkillSeeker seeker = (SkillSeeker) currentUser;
+            boolean rerating = selectedSession.getRatingBy(seeker.getId()) != 0;
+            platformTasks.run(() -> seeker.rateSession(selectedSession, rating),
+                    () -> showAlert("Rating Saved", (rerating ? "Your rating of '" : "You rated '") + selectedSession.getSkillName()
+                            + "' " + (rerating ? "is now " : "") + rating + " star(s)."));
+        });
+        enrollControls.getChildren().addAll(enrollButton, ratingCombo, rateButton);
+        sessionSection.getChildren().addAll(sessionsLabel, searchInput, sessionViewControls, sessionListView, pagingControls, enrollControls);
 
         // Requested Sessions
         VBox requestedSessionSection = new VBox(10);
@@ -1029,7 +5911,8 @@ public class SkillSharingApp extends Application {
                     showAlert("Input Error", "Please fill in all fields.");
                     return;
                 }
-                ((SkillSeeker) currentUser).requestSession(skillName, timing, duration);
+                SkillSeeker seeker = (SkillSeeker) currentUser;
+                platformTasks.run(() -> seeker.requestSession(skillName, timing, duration));
                 skillNameInput.clear();
                 timingInput.clear();
                 durationInput.clear();
@@ -1056,7 +5939,7 @@ public class SkillSharingApp extends Application {
         lecturesContent.setPadding(new Insets(10));
         ComboBox<Session> lectureSessionCombo = new ComboBox<>();
         lectureSessionCombo.setPromptText("Select Skill to View Lecture");
-        lectureSessionCombo.getItems().addAll(SessionManager.getAllSessions());
+        lectureSessionCombo.setItems(sessionListModel.getSessions());
         lectureSessionCombo.setConverter(new StringConverter<>() {
             @Override
             public String toString(Session session) {
@@ -1087,7 +5970,7 @@ public class SkillSharingApp extends Application {
         quizContent.setPadding(new Insets(10));
         ComboBox<Session> quizSessionCombo = new ComboBox<>();
         quizSessionCombo.setPromptText("Select Skill to Take Quiz");
-        quizSessionCombo.getItems().addAll(SessionManager.getAllSessions());
+        quizSessionCombo.setItems(sessionListModel.getSessions());
         quizSessionCombo.setConverter(new StringConverter<>() {
             @Override
             public String toString(Session session) {
@@ -1100,15 +5983,36 @@ public class SkillSharingApp extends Application {
         takeQuizButton.setOnAction(e -> {
             Session selectedSession = quizSessionCombo.getSelectionModel().getSelectedItem();
             if (selectedSession != null) {
-                QuizManager.getQuizBySkillName(selectedSession.getSkillName()).ifPresentOrElse(
-                        this::showQuizDialog,
+                QuizManager.getCompiledQuiz(selectedSession.getSkillName()).ifPresentOrElse(
+                        quiz -> showQuizDialog(quiz, null),
                         () -> showAlert("Quiz Not Found", "No quiz found for '" + selectedSession.getSkillName() + "'.")
                 );
             } else {
                 showAlert("Selection Error", "Please select a skill.");
             }
         });
-        quizContent.getChildren().addAll(quizSessionCombo, takeQuizButton);
+        // Practice quizzes are drawn afresh from the skill's question bank for every attempt.
+        TextField practiceTagField = new TextField();
+        practiceTagField.setPromptText("Topic tag (optional)");
+        ComboBox<Difficulty> practiceDifficultyCombo = new ComboBox<>();
+        practiceDifficultyCombo.setPromptText("Any difficulty");
+        practiceDifficultyCombo.getItems().addAll(Difficulty.values());
+        Button practiceQuizButton = new Button("Practice Quiz");
+        practiceQuizButton.setOnAction(e -> {
+            Session selectedSession = quizSessionCombo.getSelectionModel().getSelectedItem();
+            if (selectedSession != null) {
+                String skillName = selectedSession.getSkillName();
+                Optional<QuizDraw> draw = QuestionBankManager.newDraw(skillName, ThreadLocalRandom.current().nextLong(),
+                        PRACTICE_QUIZ_QUESTIONS, practiceTagField.getText(), practiceDifficultyCombo.getValue());
+                draw.flatMap(d -> QuestionBankManager.generate(skillName, d)).ifPresentOrElse(
+                        quiz -> showQuizDialog(CompiledQuiz.compile(quiz), draw.get()),
+                        () -> showAlert("No Questions", "The question bank for '" + skillName + "' has no matching questions.")
+                );
+            } else {
+                showAlert("Selection Error", "Please select a skill.");
+            }
+        });
+        quizContent.getChildren().addAll(quizSessionCombo, takeQuizButton, practiceTagField, practiceDifficultyCombo, practiceQuizButton);
         quizTab.setContent(quizContent);
 
 
@@ -1119,7 +6023,7 @@ public class SkillSharingApp extends Application {
         assignmentContent.setPadding(new Insets(10));
         ComboBox<Session> assignmentSessionCombo = new ComboBox<>();
         assignmentSessionCombo.setPromptText("Select Skill for Assignment");
-        assignmentSessionCombo.getItems().addAll(SessionManager.getAllSessions());
+        assignmentSessionCombo.setItems(sessionListModel.getSessions());
         assignmentSessionCombo.setConverter(new StringConverter<>() {
             @Override
             public String toString(Session session) {
@@ -1155,8 +6059,18 @@ public class SkillSharingApp extends Application {
                                 Assignment submission = new Assignment(assignment.getSkillName(), assignment.getDescription());
                                 submission.setSubmittedByUserId(currentUser.getId());
                                 submission.setFilePath(file.getAbsolutePath());
-                                AssignmentManager.addSubmission(submission);
-                                showAlert("Submission Success", "Assignment for '" + selectedSession.getSkillName() + "' submitted successfully.");
+                                // The file check can be slow on network drives, so it runs with the submission.
+                                platformTasks.submit(() -> {
+                                    if (!Files.isReadable(file.toPath())) return false;
+                                    AssignmentManager.addSubmission(submission);
+                                    return true;
+                                }, submitted -> {
+                                    if (submitted) {
+                                        showAlert("Submission Success", "Assignment for '" + selectedSession.getSkillName() + "' submitted successfully.");
+                                    } else {
+                                        showAlert("Submission Error", "The file " + file.getName() + " could not be read. Please choose another file.");
+                                    }
+                                });
                             }
                         },
                         () -> showAlert("Assignment Not Found", "No assignment to submit for '" + selectedSession.getSkillName() + "'.")
@@ -1178,7 +6092,8 @@ public class SkillSharingApp extends Application {
         root.getChildren().addAll(sessionSection, requestedSessionSection, seekerActionsSection);
     }
 
-    private void showQuizDialog(Quiz quiz) {
+    // The draw is null for a skill's published quiz, and the bank draw for a generated one.
+    private void showQuizDialog(CompiledQuiz quiz, QuizDraw draw) {
         Stage quizStage = new Stage();
         quizStage.setTitle("Quiz for " + quiz.getSkillName());
 
@@ -1195,25 +6110,23 @@ public class SkillSharingApp extends Application {
         Button finishButton = new Button("Finish");
 
         List<RadioButton> optionRadios = new ArrayList<>();
-        List<Integer> seekerAnswers = new ArrayList<>();
+        byte[] seekerAnswers = quiz.newAnswers();
 
         int[] currentQuestionIndex = {0};
 
         Runnable updateQuizView = () -> {
-            if (currentQuestionIndex[0] < quiz.getQuestions().size()) {
-                Question currentQuestion = quiz.getQuestions().get(currentQuestionIndex[0]);
-                questionLabel.setText("Question " + (currentQuestionIndex[0] + 1) + ": " + currentQuestion.getQuestionText());
+            if (currentQuestionIndex[0] < quiz.getQuestionCount()) {
+                questionLabel.setText("Question " + (currentQuestionIndex[0] + 1) + ": " + quiz.getQuestionText(currentQuestionIndex[0]));
                 optionsBox.getChildren().clear();
                 optionRadios.clear();
-                int optionIndex = 0;
-                for (String option : currentQuestion.getOptions()) {
+                for (String option : quiz.getOptions(currentQuestionIndex[0])) {
                     RadioButton rb = new RadioButton(option);
                     rb.setToggleGroup(answerGroup);
                     optionsBox.getChildren().add(rb);
                     optionRadios.add(rb);
                 }
 
-                if (currentQuestionIndex[0] == quiz.getQuestions().size() - 1) {
+                if (currentQuestionIndex[0] == quiz.getQuestionCount() - 1) {
                     nextButton.setManaged(false);
                     nextButton.setVisible(false);
                     finishButton.setManaged(true);
@@ -1236,7 +6149,7 @@ public class SkillSharingApp extends Application {
                 }
             }
             if (selectedIndex != -1) {
-                seekerAnswers.add(selectedIndex);
+                seekerAnswers[currentQuestionIndex[0]] = (byte) selectedIndex;
                 currentQuestionIndex[0]++;
                 updateQuizView.run();
                 answerGroup.selectToggle(null); // Clear selection for next question
@@ -1254,17 +6167,18 @@ public class SkillSharingApp extends Application {
                 }
             }
             if (selectedIndex != -1) {
-                seekerAnswers.add(selectedIndex);
-                int correctAnswers = 0;
-                for (int i = 0; i < quiz.getQuestions().size(); i++) {
-                    if (seekerAnswers.get(i) == quiz.getQuestions().get(i).getCorrectAnswerIndex()) {
-                        correctAnswers++;
-                    }
-                }
-                int score = (int) ((double) correctAnswers / quiz.getQuestions().size() * 100);
-                ResultManager.addResult(new Result(currentUser.getId(), quiz.getSkillName(), score));
-                showAlert("Quiz Complete", "You scored " + score + "%!");
+                seekerAnswers[currentQuestionIndex[0]] = (byte) selectedIndex;
+                byte[] answers = seekerAnswers.clone();
+                String seekerId = currentUser.getId();
                 quizStage.close();
+                platformTasks.submit(() -> {
+                    long start = System.nanoTime();
+                    int score = quiz.score(answers);
+                    QuizAttemptManager.addAttempt(new QuizAttempt(seekerId, quiz.getSkillName(), quiz.getVersion(), answers, draw));
+                    ResultManager.addResult(new Result(seekerId, quiz.getSkillName(), score));
+                    gradeTimer.recordSince(start);
+                    return score;
+                }, score -> showAlert("Quiz Complete", "You scored " + score + "%!"));
             } else {
                 showAlert("Selection Error", "Please select an answer before finishing.");
             }
@@ -1295,25 +6209,35 @@ public class SkillSharingApp extends Application {
         timingInput.setPromptText("Timing (e.g., 'Mon 10am')");
         TextField durationInput = new TextField();
         durationInput.setPromptText("Duration in minutes");
+        TextField capacityInput = new TextField();
+        capacityInput.setPromptText("Capacity (default " + Session.DEFAULT_CAPACITY + ")");
         Button addSessionButton = new Button("Add Session");
         addSessionButton.setOnAction(e -> {
             try {
                 String skillName = skillNameInput.getText().trim();
                 String timing = timingInput.getText().trim();
                 int duration = Integer.parseInt(durationInput.getText().trim());
+                String capacityText = capacityInput.getText().trim();
+                int capacity = capacityText.isEmpty() ? Session.DEFAULT_CAPACITY : Integer.parseInt(capacityText);
                 if (skillName.isEmpty() || timing.isEmpty()) {
                     showAlert("Input Error", "Please fill in all fields.");
                     return;
                 }
-                ((SkillProvider) currentUser).addSession(skillName, timing, duration);
+                if (capacity < 1) {
+                    showAlert("Input Error", "Capacity must be at least 1.");
+                    return;
+                }
+                SkillProvider provider = (SkillProvider) currentUser;
+                platformTasks.run(() -> provider.addSession(skillName, timing, duration, capacity));
                 skillNameInput.clear();
                 timingInput.clear();
                 durationInput.clear();
+                capacityInput.clear();
             } catch (NumberFormatException ex) {
-                showAlert("Input Error", "Please enter a valid number for duration.");
+                showAlert("Input Error", "Please enter valid numbers for duration and capacity.");
             }
         });
-        sessionSection.getChildren().addAll(sessionsLabel, skillNameInput, timingInput, durationInput, addSessionButton);
+        sessionSection.getChildren().addAll(sessionsLabel, skillNameInput, timingInput, durationInput, capacityInput, addSessionButton);
 
         // Provider Actions (Lectures, Quizzes, Assignments)
         VBox providerActionsSection = new VBox(10);
@@ -1331,9 +6255,7 @@ public class SkillSharingApp extends Application {
         lectureContent.setPadding(new Insets(10));
         ComboBox<Session> lectureSessionCombo = new ComboBox<>();
         lectureSessionCombo.setPromptText("Select a Session");
-        lectureSessionCombo.getItems().addAll(SessionManager.getAllSessions().stream()
-                .filter(s -> s.getSkillInstructor().equals(currentUser.getName()))
-                .collect(Collectors.toList()));
+        lectureSessionCombo.getItems().addAll(SessionManager.getSessionsByInstructor(currentUser.getName()));
         lectureSessionCombo.setConverter(new StringConverter<>() {
             @Override
             public String toString(Session session) {
@@ -1352,8 +6274,8 @@ public class SkillSharingApp extends Application {
                 File file = fileChooser.showOpenDialog(primaryStage);
                 if (file != null) {
                     Lecture newLecture = new Lecture(selectedSession.getSkillName(), file.getAbsolutePath());
-                    LectureManager.addLecture(newLecture);
-                    showAlert("Upload Successful", "Lecture video uploaded for '" + selectedSession.getSkillName() + "'.");
+                    platformTasks.run(() -> LectureManager.addLecture(newLecture),
+                            () -> showAlert("Upload Successful", "Lecture video uploaded for '" + selectedSession.getSkillName() + "'."));
                 }
             } else {
                 showAlert("Selection Error", "Please select a session first.");
@@ -1369,9 +6291,7 @@ public class SkillSharingApp extends Application {
         quizContent.setPadding(new Insets(10));
         ComboBox<Session> quizSessionCombo = new ComboBox<>();
         quizSessionCombo.setPromptText("Select a Session");
-        quizSessionCombo.getItems().addAll(SessionManager.getAllSessions().stream()
-                .filter(s -> s.getSkillInstructor().equals(currentUser.getName()))
-                .collect(Collectors.toList()));
+        quizSessionCombo.getItems().addAll(SessionManager.getSessionsByInstructor(currentUser.getName()));
         quizSessionCombo.setConverter(new StringConverter<>() {
             @Override
             public String toString(Session session) {
@@ -1399,9 +6319,7 @@ public class SkillSharingApp extends Application {
         assignmentContent.setPadding(new Insets(10));
         ComboBox<Session> assignmentSessionCombo = new ComboBox<>();
         assignmentSessionCombo.setPromptText("Select a Session");
-        assignmentSessionCombo.getItems().addAll(SessionManager.getAllSessions().stream()
-                .filter(s -> s.getSkillInstructor().equals(currentUser.getName()))
-                .collect(Collectors.toList()));
+        assignmentSessionCombo.getItems().addAll(SessionManager.getSessionsByInstructor(currentUser.getName()));
         assignmentSessionCombo.setConverter(new StringConverter<>() {
             @Override
             public String toString(Session session) {
@@ -1433,7 +6351,7 @@ public class SkillSharingApp extends Application {
 
         ListView<RequestedSession> requestsListView = new ListView<>();
         requestsListView.setPrefHeight(200);
-        requestsListView.getItems().addAll(RequestedSessionManager.getAllRequests());
+        requestsListView.getItems().addAll(RequestedSessionManager.getPendingRequests());
 
         requestsListView.setCellFactory(lv -> new ListCell<>() {
             @Override
@@ -1454,10 +6372,12 @@ public class SkillSharingApp extends Application {
         fulfillButton.setOnAction(e -> {
             RequestedSession selectedRequest = requestsListView.getSelectionModel().getSelectedItem();
             if (selectedRequest != null) {
-                ((SkillProvider) currentUser).addSession(selectedRequest.getSkillName(), selectedRequest.getTiming(), selectedRequest.getDuration());
-                RequestedSessionManager.removeRequest(selectedRequest);
+                SkillProvider provider = (SkillProvider) currentUser;
                 requestsListView.getItems().remove(selectedRequest);
-                showAlert("Request Fulfilled", "Session for '" + selectedRequest.getSkillName() + "' created successfully.");
+                platformTasks.run(() -> {
+                    provider.addSession(selectedRequest.getSkillName(), selectedRequest.getTiming(), selectedRequest.getDuration());
+                    RequestedSessionManager.fulfillRequest(selectedRequest);
+                }, () -> showAlert("Request Fulfilled", "Session for '" + selectedRequest.getSkillName() + "' created successfully."));
             } else {
                 showAlert("Selection Error", "Please select a request to fulfill.");
             }
@@ -1466,9 +6386,9 @@ public class SkillSharingApp extends Application {
         denyButton.setOnAction(e -> {
             RequestedSession selectedRequest = requestsListView.getSelectionModel().getSelectedItem();
             if (selectedRequest != null) {
-                RequestedSessionManager.removeRequest(selectedRequest);
                 requestsListView.getItems().remove(selectedRequest);
-                showAlert("Request Denied", "Request for '" + selectedRequest.getSkillName() + "' has been denied.");
+                platformTasks.run(() -> RequestedSessionManager.denyRequest(selectedRequest),
+                        () -> showAlert("Request Denied", "Request for '" + selectedRequest.getSkillName() + "' has been denied."));
             } else {
                 showAlert("Selection Error", "Please select a request to deny.");
             }
@@ -1476,10 +6396,129 @@ public class SkillSharingApp extends Application {
 
         requestButtons.getChildren().addAll(fulfillButton, denyButton);
 
-        requestsContent.getChildren().addAll(requestsLabel, requestsListView, requestButtons);
+        Label demandLabel = new Label("Grouped Demand (same skill, day, hour and similar duration):");
+        demandLabel.getStyleClass().add("subtitle-label");
+        ListView<DemandCluster> demandListView = new ListView<>();
+        demandListView.setPrefHeight(150);
+        demandListView.getItems().addAll(DemandAggregator.aggregate());
+
+        HBox demandButtons = new HBox(10);
+        TextField clusterCapacityInput = new TextField();
+        clusterCapacityInput.setPromptText("Capacity (default " + Session.DEFAULT_CAPACITY + ")");
+        Button fulfillClusterButton = new Button("Create Session for Group");
+        Button refreshDemandButton = new Button("Refresh");
+        refreshDemandButton.setOnAction(e -> {
+            requestsListView.getItems().setAll(RequestedSessionManager.getPendingRequests());
+            demandListView.getItems().setAll(DemandAggregator.aggregate());
+        });
+        fulfillClusterButton.setOnAction(e -> {
+            DemandCluster selectedCluster = demandListView.getSelectionModel().getSelectedItem();
+            if (selectedCluster == null) {
+                showAlert("Selection Error", "Please select a request group to fulfill.");
+                return;
+            }
+            int capacity;
+            try {
+                String capacityText = clusterCapacityInput.getText().trim();
+                capacity = capacityText.isEmpty() ? Session.DEFAULT_CAPACITY : Integer.parseInt(capacityText);
+            } catch (NumberFormatException ex) {
+                showAlert("Input Error", "Please enter a valid number for capacity.");
+                return;
+            }
+            if (capacity < 1) {
+                showAlert("Input Error", "Capacity must be at least 1.");
+                return;
+            }
+            SkillProvider provider = (SkillProvider) currentUser;
+            clusterCapacityInput.clear();
+            fulfillClusterButton.setDisable(true);
+            platformTasks.submit(() -> provider.fulfillDemandCluster(selectedCluster, capacity, registeredUsers), created -> {
+                fulfillClusterButton.setDisable(false);
+                requestsListView.getItems().setAll(RequestedSessionManager.getPendingRequests());
+                demandListView.getItems().setAll(DemandAggregator.aggregate());
+                if (created.isPresent()) {
+                    showAlert("Requests Fulfilled", "Session for '" + selectedCluster.getSkillName() + "' created with "
+                            + created.get().getEnrolledUserIds().size() + " of " + selectedCluster.getDemand() + " requester(s) enrolled.");
+                } else {
+                    showAlert("Session Error", "Could not create a session for '" + selectedCluster.getSkillName() + "'. Please try again.");
+                }
+            });
+        });
+        demandButtons.getChildren().addAll(clusterCapacityInput, fulfillClusterButton, refreshDemandButton);
+
+        requestsContent.getChildren().addAll(requestsLabel, requestsListView, requestButtons, demandLabel, demandListView, demandButtons);
         requestsTab.setContent(requestsContent);
 
-        providerTabPane.getTabs().addAll(lectureTab, quizTab, assignmentTab, requestsTab);
+        // Tab for Analytics: per-skill aggregates kept by SkillAnalytics, so a refresh costs the same however
+        // many results there are.
+        Tab analyticsTab = new Tab("Analytics");
+        analyticsTab.setClosable(false);
+        VBox analyticsContent = new VBox(10);
+        analyticsContent.setPadding(new Insets(10));
+        ComboBox<Session> analyticsSessionCombo = new ComboBox<>();
+        analyticsSessionCombo.setPromptText("Select a Session");
+        analyticsSessionCombo.getItems().addAll(SessionManager.getSessionsByInstructor(currentUser.getName()));
+        analyticsSessionCombo.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Session session) {
+                return session == null ? null : session.getSkillName();
+            }
+            @Override
+            public Session fromString(String string) { return null; }
+        });
+        Label resultStatsLabel = new Label();
+        Label ratingStatsLabel = new Label();
+        Label ratingTrendLabel = new Label();
+        CategoryAxis scoreBandAxis = new CategoryAxis();
+        scoreBandAxis.setLabel("Score (%)");
+        NumberAxis scoreCountAxis = new NumberAxis();
+        scoreCountAxis.setLabel("Seekers");
+        BarChart<String, Number> scoreChart = new BarChart<>(scoreBandAxis, scoreCountAxis);
+        scoreChart.setLegendVisible(false);
+        scoreChart.setAnimated(false);
+        scoreChart.setPrefHeight(220);
+        Runnable refreshAnalytics = () -> {
+            Session selectedSession = analyticsSessionCombo.getSelectionModel().getSelectedItem();
+            if (selectedSession == null) return;
+            String skillName = selectedSession.getSkillName();
+            ScoreDistribution.Summary results = SkillAnalytics.getResultSummary(skillName);
+            if (results.getCount() == 0) {
+                resultStatsLabel.setText("No quiz results yet.");
+            } else {
+                resultStatsLabel.setText(String.format("Results: %d | Mean: %.1f%% | Std dev: %.1f | Median: %d%% | 90th percentile: %d%% | Pass rate (%d%%+): %.0f%%",
+                        results.getCount(), results.getMean(), results.getStandardDeviation(), results.getValueAtPercentile(50),
+                        results.getValueAtPercentile(90), SkillAnalytics.PASS_MARK,
+                        100.0 * results.getCountAtLeast(SkillAnalytics.PASS_MARK) / results.getCount()));
+            }
+            XYChart.Series<String, Number> bands = new XYChart.Series<>();
+            long[] buckets = results.getBuckets(10);
+            for (int i = 0; i < buckets.length; i++) {
+                String band = i == buckets.length - 1 ? String.valueOf(i * 10) : (i * 10) + "-" + (i * 10 + 9);
+                bands.getData().add(new XYChart.Data<>(band, buckets[i]));
+            }
+            scoreChart.getData().setAll(List.of(bands));
+
+            ScoreDistribution.Summary ratings = SkillAnalytics.getRatingSummary(skillName);
+            StringBuilder stars = new StringBuilder();
+            for (int star = 5; star >= 1; star--) {
+                stars.append(" | ").append(star).append(" star: ").append(ratings.getCountOf(star));
+            }
+            ratingStatsLabel.setText(String.format("Average rating: %.1f from %d rating(s) | Recent-weighted: %.1f | By seeker: %d rating(s), std dev %.2f%s",
+                    selectedSession.getAverageSkillRating(), selectedSession.getNumberOfRatings(), selectedSession.getDecayedSkillRating(),
+                    ratings.getCount(), ratings.getStandardDeviation(), stars));
+            StringBuilder trend = new StringBuilder("Last 7 days:");
+            for (double average : SkillAnalytics.getRatingTrend(skillName, 7)) {
+                trend.append(Double.isNaN(average) ? "  -" : String.format("  %.1f", average));
+            }
+            ratingTrendLabel.setText(trend.toString());
+        };
+        analyticsSessionCombo.setOnAction(e -> refreshAnalytics.run());
+        Button refreshAnalyticsButton = new Button("Refresh");
+        refreshAnalyticsButton.setOnAction(e -> refreshAnalytics.run());
+        analyticsContent.getChildren().addAll(analyticsSessionCombo, resultStatsLabel, scoreChart, ratingStatsLabel, ratingTrendLabel, refreshAnalyticsButton);
+        analyticsTab.setContent(analyticsContent);
+
+        providerTabPane.getTabs().addAll(lectureTab, quizTab, assignmentTab, requestsTab, analyticsTab);
         providerActionsSection.getChildren().addAll(providerActionsLabel, providerTabPane);
 
 
@@ -1503,39 +6542,74 @@ public class SkillSharingApp extends Application {
         List<TextField> optionFields = new ArrayList<>();
         Label optionsLabel = new Label("Options:");
         VBox optionsBox = new VBox(5);
-        for (int i = 0; i < 4; i++) {
+        Runnable addOptionField = () -> {
             TextField optionField = new TextField();
-            optionField.setPromptText("Option " + (i + 1));
+            optionField.setPromptText("Option " + (optionFields.size() + 1));
             optionsBox.getChildren().add(optionField);
             optionFields.add(optionField);
+        };
+        for (int i = 0; i < 2; i++) {
+            addOptionField.run();
         }
+        Button addOptionButton = new Button("Add Option");
+        addOptionButton.setOnAction(e -> addOptionField.run());
 
-        Label correctLabel = new Label("Correct Answer Index (0-3):");
+        Label correctLabel = new Label("Correct Answer Index:");
         TextField correctIndexField = new TextField();
         correctIndexField.setPromptText("e.g., 0 for the first option");
 
+        Label bankLabel = new Label("Question Bank Tags and Difficulty:");
+        TextField tagsField = new TextField();
+        tagsField.setPromptText("Comma-separated tags, e.g. loops, arrays");
+        ComboBox<Difficulty> difficultyCombo = new ComboBox<>();
+        difficultyCombo.getItems().addAll(Difficulty.values());
+        difficultyCombo.setValue(Difficulty.MEDIUM);
+
         Button addQuestionButton = new Button("Add Question");
+        Button addToBankButton = new Button("Add to Question Bank");
         Button saveQuizButton = new Button("Save Quiz");
 
-        addQuestionButton.setOnAction(e -> {
-            if (!questionText.getText().isEmpty() && !optionsBox.getChildren().isEmpty() && !correctIndexField.getText().isEmpty()) {
-                List<String> options = optionFields.stream().map(TextField::getText).collect(Collectors.toList());
-                try {
-                    int correctIndex = Integer.parseInt(correctIndexField.getText());
-                    if (correctIndex >= 0 && correctIndex < options.size()) {
-                        newQuiz.addQuestion(new Question(questionText.getText(), options, correctIndex));
-                        showAlert("Question Added", "Question added successfully. Add another or save the quiz.");
-                        questionText.clear();
-                        optionFields.forEach(TextField::clear);
-                        correctIndexField.clear();
-                    } else {
-                        showAlert("Input Error", "Correct index must be between 0 and 3.");
-                    }
-                } catch (NumberFormatException ex) {
-                    showAlert("Input Error", "Correct index must be a number.");
-                }
-            } else {
+        // Reads the question being edited, or shows what is missing and returns null.
+        Supplier<Question> readQuestion = () -> {
+            List<String> options = optionFields.stream().map(TextField::getText).collect(Collectors.toList());
+            if (questionText.getText().isEmpty() || options.contains("") || correctIndexField.getText().isEmpty()) {
                 showAlert("Input Error", "Please fill in all fields to add a question.");
+                return null;
+            }
+            try {
+                int correctIndex = Integer.parseInt(correctIndexField.getText());
+                if (correctIndex >= 0 && correctIndex < options.size()) {
+                    return new Question(questionText.getText(), options, correctIndex);
+                }
+                showAlert("Input Error", "Correct index must be between 0 and " + (options.size() - 1) + ".");
+            } catch (NumberFormatException ex) {
+                showAlert("Input Error", "Correct index must be a number.");
+            }
+            return null;
+        };
+        Runnable clearQuestion = () -> {
+            questionText.clear();
+            optionFields.forEach(TextField::clear);
+            correctIndexField.clear();
+        };
+
+        addQuestionButton.setOnAction(e -> {
+            Question question = readQuestion.get();
+            if (question != null) {
+                newQuiz.addQuestion(question);
+                showAlert("Question Added", "Question added successfully. Add another or save the quiz.");
+                clearQuestion.run();
+            }
+        });
+
+        addToBankButton.setOnAction(e -> {
+            Question question = readQuestion.get();
+            if (question != null) {
+                BankQuestion bankQuestion = new BankQuestion(skillName, question,
+                        Arrays.asList(tagsField.getText().split(",")), difficultyCombo.getValue());
+                clearQuestion.run();
+                platformTasks.run(() -> QuestionBankManager.addQuestion(bankQuestion),
+                        () -> showAlert("Question Added", "Question added to the question bank for " + skillName + "."));
             }
         });
 
@@ -1543,14 +6617,21 @@ public class SkillSharingApp extends Application {
             if (newQuiz.getQuestions().isEmpty()) {
                 showAlert("Save Error", "Please add at least one question to the quiz.");
             } else {
-                QuizManager.addQuiz(newQuiz);
-                showAlert("Quiz Saved", "Quiz for " + skillName + " has been saved successfully.");
                 quizCreatorStage.close();
+                platformTasks.run(() -> {
+                    if (QuizManager.addQuiz(newQuiz)) {
+                        QuizManager.getCompiledQuiz(skillName, newQuiz.getVersion()).ifPresent(quizRegrader::regradeFor);
+                    }
+                }, () -> showAlert("Quiz Saved", "Version " + newQuiz.getVersion() + " of the quiz for " + skillName
+                        + " has been saved successfully."));
             }
         });
 
-        root.getChildren().addAll(questionLabel, questionText, optionsLabel, optionsBox, correctLabel, correctIndexField, addQuestionButton, saveQuizButton);
-        Scene scene = new Scene(root, 400, 450);
+        root.getChildren().addAll(questionLabel, questionText, optionsLabel, optionsBox, addOptionButton, correctLabel,
+                correctIndexField, bankLabel, tagsField, difficultyCombo, addQuestionButton, addToBankButton, saveQuizButton);
+        ScrollPane scrollPane = new ScrollPane(root);
+        scrollPane.setFitToWidth(true);
+        Scene scene = new Scene(scrollPane, 420, 600);
         quizCreatorStage.setScene(scene);
         quizCreatorStage.show();
     }
@@ -1571,9 +6652,9 @@ public class SkillSharingApp extends Application {
         createButton.setOnAction(e -> {
             if (!descriptionText.getText().isEmpty()) {
                 Assignment newAssignment = new Assignment(skillName, descriptionText.getText());
-                AssignmentManager.addAssignment(newAssignment);
-                showAlert("Assignment Created", "Assignment for '" + skillName + "' has been created successfully.");
                 assignmentCreatorStage.close();
+                platformTasks.run(() -> AssignmentManager.addAssignment(newAssignment),
+                        () -> showAlert("Assignment Created", "Assignment for '" + skillName + "' has been created successfully."));
             } else {
                 showAlert("Input Error", "Please enter a description for the assignment.");
             }
@@ -1585,11 +6666,6 @@ public class SkillSharingApp extends Application {
         assignmentCreatorStage.show();
     }
 
-    private void updateSessionList(ListView<Session> sessionListView) {
-        sessionListView.getItems().clear();
-        SessionManager.getAllSessions().forEach(session -> sessionListView.getItems().add(session));
-    }
-
     private void showAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle(title);
@@ -1598,261 +6674,91 @@ public class SkillSharingApp extends Application {
         alert.showAndWait();
     }
 
-    private void saveData() {
-        // Save users
-        try (PrintWriter writer = new PrintWriter(USERS_FILE)) {
-            for (AbstractPerson person : registeredUsers.values()) {
-                if (person instanceof SkillSeeker) {
-                    SkillSeeker seeker = (SkillSeeker) person;
-                    String enrolledSkills = String.join(",", seeker.getEnrolledSessionNames());
-                    writer.println("seeker|" + seeker.getId() + "|" + seeker.getName() + "|" + seeker.getPassword() + "|" + enrolledSkills);
-                } else if (person instanceof SkillProvider) {
-                    SkillProvider provider = (SkillProvider) person;
-                    writer.println("provider|" + provider.getId() + "|" + provider.getName() + "|" + provider.getPassword());
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving users: " + e.getMessage());
-        }
-
-        // Save sessions
-        try (PrintWriter writer = new PrintWriter(SESSIONS_FILE)) {
-            for (Session session : SessionManager.getAllSessions()) {
-                String enrolledUsers = String.join(",", session.getEnrolledUserIds());
-                writer.println(session.getSkillName() + "|" + session.getSkillCode() + "|" + session.getSkillSlotTiming() + "|" + session.getSkillInstructor() + "|" + session.getSessionDuration() + "|" + session.getRawSkillRating() + "|" + session.getNumberOfRatings() + "|" + enrolledUsers);
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving sessions: " + e.getMessage());
-        }
-
-        // Save requests
-        try (PrintWriter writer = new PrintWriter(REQUESTS_FILE)) {
-            for (RequestedSession request : RequestedSessionManager.getAllRequests()) {
-                writer.println(request.getSkillName() + "|" + request.getRequestedByUserId() + "|" + request.getTiming() + "|" + request.getDuration() + "|" + request.getStatus());
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving requests: " + e.getMessage());
-        }
-
-        // Save results
-        try (PrintWriter writer = new PrintWriter(RESULTS_FILE)) {
-            for (Result result : ResultManager.getAllResults()) {
-                writer.println(result.getSeekerId() + "|" + result.getSkillName() + "|" + result.getMarks());
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving results: " + e.getMessage());
-        }
-
-        // Save lectures
-        try (PrintWriter writer = new PrintWriter(LECTURES_FILE)) {
-            for (Lecture lecture : LectureManager.getAllLectures()) {
-                writer.println(lecture.toString());
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving lectures: " + e.getMessage());
-        }
-
-        // Save quizzes
-        try (PrintWriter writer = new PrintWriter(QUIZZES_FILE)) {
-            for (Quiz quiz : QuizManager.getAllQuizzes()) {
-                writer.println(quiz.toString());
-            }
+    // Writes the encoded snapshot covering every journal record up to journalSequence and drops the journal
+    // segments it covers, unless the startup load was degraded. With text export enabled, the text files of
+    // the changed domains (and of any whose last export failed) are exported from the new snapshot, so they
+    // match it exactly. Returns false if the snapshot could not be written.
+    private boolean writeSnapshot(long journalSequence, Map<DataDomain, byte[]> sections, Set<DataDomain> changed) {
+        long start = System.nanoTime();
+        try {
+            BinarySnapshot.writeSections(Path.of(SNAPSHOT_FILE), journalSequence, sections);
+            Files.deleteIfExists(Path.of(SNAPSHOT_SEQUENCE_FILE));
         } catch (IOException e) {
-            System.err.println("Error saving quizzes: " + e.getMessage());
+            log.error(() -> "Error saving snapshot: " + e.getMessage());
+            failedSaves.increment();
+            return false;
         }
-
-        // Save assignments and submissions
-        try (PrintWriter writer = new PrintWriter(ASSIGNMENTS_FILE)) {
-            for (Assignment assignment : AssignmentManager.getAllAssignments()) {
-                writer.println(assignment.toString());
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving assignments: " + e.getMessage());
+        if (!degradedLoad) {
+            PlatformJournal.discardSegmentsThrough(journalSequence);
         }
-        try (PrintWriter writer = new PrintWriter(SUBMISSIONS_FILE)) {
-            for (Assignment submission : AssignmentManager.getAllSubmissions()) {
-                writer.println(submission.toString());
+        unexportedDomains.addAll(changed);
+        if (EXPORT_TEXT && !unexportedDomains.isEmpty()) {
+            try {
+                SnapshotTool.exportToText(Path.of(SNAPSHOT_FILE), DataDomain.textFiles(), unexportedDomains);
+                unexportedDomains.clear();
+            } catch (IOException e) {
+                log.error(() -> "Error exporting text files: " + e.getMessage());
             }
-        } catch (IOException e) {
-            System.err.println("Error saving submissions: " + e.getMessage());
         }
+        saveWriteTimer.recordSince(start);
+        return true;
     }
 
+    // Package-private and static so the persistence benchmarks snapshot exactly what requestSave() writes.
+    static Map<DataDomain, Collection<?>> collectData(Map<String, AbstractPerson> registeredUsers) {
+        return collectData(registeredUsers, EnumSet.allOf(DataDomain.class));
+    }
 
-    private void loadData() {
-        System.out.println("--- Loading Data ---");
-
-        // Load users
-        try (BufferedReader reader = new BufferedReader(new FileReader(USERS_FILE))) {
-            String line;
-            AbstractPerson.resetTotalUsers();
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 4) {
-                    String type = parts[0];
-                    String id = parts[1];
-                    String name = parts[2];
-                    String password = parts[3];
-                    AbstractPerson.updateIdCountersFromFile(id);
-
-                    if ("seeker".equals(type) && parts.length > 4) {
-                        List<String> enrolledSkills = new ArrayList<>();
-                        if (!parts[4].isEmpty()) {
-                            enrolledSkills = Arrays.asList(parts[4].split(","));
-                        }
-                        SkillSeeker seeker = new SkillSeeker(id, name, password, enrolledSkills, null);
-                        registeredUsers.put(id, seeker);
-                    } else if ("provider".equals(type)) {
-                        SkillProvider provider = new SkillProvider(id, name, password);
-                        registeredUsers.put(id, provider);
-                    }
-                }
-            }
-            System.out.println("User data loaded from " + USERS_FILE);
-        } catch (FileNotFoundException e) {
-            System.out.println("No existing user data file found (" + USERS_FILE + "). Starting fresh.");
-        } catch (IOException e) {
-            System.err.println("Error loading user data: " + e.getMessage());
-        }
-
-        // Load sessions
-        try (BufferedReader reader = new BufferedReader(new FileReader(SESSIONS_FILE))) {
-            String line;
-            SessionManager.clearAllSessions();
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 7) {
-                    String skillName = parts[0];
-                    String skillCode = parts[1];
-                    String timing = parts[2];
-                    String instructor = parts[3];
-                    int duration = Integer.parseInt(parts[4]);
-                    int rating = Integer.parseInt(parts[5]);
-                    int numRatings = Integer.parseInt(parts[6]);
-                    List<String> enrolledUserIds = new ArrayList<>();
-                    if (parts.length > 7 && !parts[7].isEmpty()) {
-                        enrolledUserIds = Arrays.asList(parts[7].split(","));
-                    }
-                    Session session = new Session(skillName, skillCode, timing, instructor, duration, rating, numRatings, enrolledUserIds);
-                    SessionManager.addSession(session);
-                }
-            }
-            System.out.println("Session data loaded from " + SESSIONS_FILE);
-        } catch (FileNotFoundException e) {
-            System.out.println("No existing session data file found (" + SESSIONS_FILE + "). Starting fresh.");
-        } catch (IOException | NumberFormatException e) {
-            System.err.println("Error loading session data: " + e.getMessage());
-        }
-
-        // Load requests
-        try (BufferedReader reader = new BufferedReader(new FileReader(REQUESTS_FILE))) {
-            String line;
-            RequestedSessionManager.clearRequests();
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length == 5) {
-                    String skillName = parts[0];
-                    String userId = parts[1];
-                    String timing = parts[2];
-                    int duration = Integer.parseInt(parts[3]);
-                    String status = parts[4];
-                    RequestedSession request = new RequestedSession(skillName, userId, timing, duration);
-                    request.setStatus(status);
-                    RequestedSessionManager.addRequest(request);
-                    AbstractPerson seeker = registeredUsers.get(userId);
-                    if (seeker instanceof SkillSeeker) {
-                        ((SkillSeeker) seeker).getMyRequestedSessions().add(request);
-                    }
-                }
+    static Map<DataDomain, Collection<?>> collectData(Map<String, AbstractPerson> registeredUsers, Set<DataDomain> domains) {
+        Map<DataDomain, Collection<?>> data = new EnumMap<>(DataDomain.class);
+        for (DataDomain domain : domains) {
+            switch (domain) {
+                case USERS: data.put(domain, new ArrayList<>(registeredUsers.values())); break;
+                case SESSIONS: data.put(domain, SessionManager.getAllSessions()); break;
+                case REQUESTS: data.put(domain, RequestedSessionManager.getAllRequests()); break;
+                case RESULTS: data.put(domain, ResultManager.getAllResults()); break;
+                case LECTURES: data.put(domain, LectureManager.getAllLectures()); break;
+                case QUIZZES: data.put(domain, QuizManager.getAllQuizzes()); break;
+                case ASSIGNMENTS: data.put(domain, AssignmentManager.getAllAssignments()); break;
+                case SUBMISSIONS: data.put(domain, AssignmentManager.getAllSubmissions()); break;
+                case QUIZ_ATTEMPTS: data.put(domain, QuizAttemptManager.getAllAttempts()); break;
+                case QUESTION_BANK: data.put(domain, QuestionBankManager.getAllQuestions()); break;
+                case RATINGS: data.put(domain, SessionManager.getAllRatings()); break;
             }
-            System.out.println("Request data loaded from " + REQUESTS_FILE);
-        } catch (FileNotFoundException e) {
-            System.out.println("No existing request data file found (" + REQUESTS_FILE + "). Starting fresh.");
-        } catch (IOException | NumberFormatException e) {
-            System.err.println("Error loading request data: " + e.getMessage());
         }
+        return data;
+    }
 
-        // Load results
-        try (BufferedReader reader = new BufferedReader(new FileReader(RESULTS_FILE))) {
-            String line;
-            ResultManager.clearAllResults();
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length == 3) {
-                    String seekerId = parts[0];
-                    String skillName = parts[1];
-                    int marks = Integer.parseInt(parts[2]);
-                    Result result = new Result(seekerId, skillName, marks);
-                    ResultManager.addResult(result);
-                    AbstractPerson seeker = registeredUsers.get(seekerId);
-                    if (seeker instanceof SkillSeeker) {
-                        ((SkillSeeker) seeker).addResult(result);
-                    }
+    // Loads the binary snapshot when one exists. Only when there is none, as before the first save, are the
+    // legacy text files loaded; the first save then writes them out as a snapshot. An unreadable snapshot stops
+    // startup rather than falling back: the text files are usually older than it, and replaying the journal
+    // over them and saving would overwrite a snapshot that may still be recoverable.
+    private void loadData() throws IOException {
+        log.info("--- Loading Data ---");
+        Path snapshotPath = Path.of(SNAPSHOT_FILE);
+        if (Files.exists(snapshotPath)) {
+            try {
+                BinarySnapshot snapshot = BinarySnapshot.open(snapshotPath);
+                new PlatformDataLoader(snapshot).loadInto(registeredUsers);
+                snapshotSequence = snapshot.getJournalSequence();
+                // Sections in the current format are reused as they are until their domain changes.
+                for (DataDomain domain : DataDomain.values()) {
+                    snapshot.getEncodedSection(domain).ifPresent(section -> {
+                        savedSections.put(domain, section);
+                        savedVersions.put(domain, domain.getVersion());
+                    });
                 }
+                savedSequence = snapshotSequence;
+                savedChangeCount = DataDomain.getChangeCount();
+                log.info("--- Data Loading Complete ---");
+                return;
+            } catch (IOException e) {
+                throw new IOException("Snapshot " + SNAPSHOT_FILE + " could not be loaded: " + e.getMessage()
+                        + ". It and the journal were left as they are.", e);
             }
-            System.out.println("Result data loaded from " + RESULTS_FILE);
-        } catch (FileNotFoundException e) {
-            System.out.println("No existing result data file found (" + RESULTS_FILE + "). Starting fresh.");
-        } catch (IOException | NumberFormatException e) {
-            System.err.println("Error loading result data: " + e.getMessage());
-        }
-
-        // Load lectures
-        try (BufferedReader reader = new BufferedReader(new FileReader(LECTURES_FILE))) {
-            String line;
-            LectureManager.clearAllLectures();
-            while ((line = reader.readLine()) != null) {
-                Lecture lecture = Lecture.fromString(line);
-                LectureManager.addLecture(lecture);
-            }
-            System.out.println("Lecture data loaded from " + LECTURES_FILE);
-        } catch (FileNotFoundException e) {
-            System.out.println("No existing lecture data file found (" + LECTURES_FILE + "). Starting fresh.");
-        } catch (IOException e) {
-            System.err.println("Error loading lecture data: " + e.getMessage());
-        }
-
-        // Load quizzes
-        try (BufferedReader reader = new BufferedReader(new FileReader(QUIZZES_FILE))) {
-            String line;
-            QuizManager.clearAllQuizzes();
-            while ((line = reader.readLine()) != null) {
-                Quiz quiz = Quiz.fromString(line);
-                QuizManager.addQuiz(quiz);
-            }
-            System.out.println("Quiz data loaded from " + QUIZZES_FILE);
-        } catch (FileNotFoundException e) {
-            System.out.println("No existing quiz data file found (" + QUIZZES_FILE + "). Starting fresh.");
-        } catch (IOException e) {
-            System.err.println("Error loading quiz data: " + e.getMessage());
-        }
-
-        // Load assignments and submissions
-        try (BufferedReader reader = new BufferedReader(new FileReader(ASSIGNMENTS_FILE))) {
-            String line;
-            AssignmentManager.clearAllAssignments();
-            while ((line = reader.readLine()) != null) {
-                Assignment assignment = Assignment.fromString(line);
-                AssignmentManager.addAssignment(assignment);
-            }
-            System.out.println("Assignment data loaded from " + ASSIGNMENTS_FILE);
-        } catch (FileNotFoundException e) {
-            System.out.println("No existing assignment data file found (" + ASSIGNMENTS_FILE + "). Starting fresh.");
-        } catch (IOException e) {
-            System.err.println("Error loading assignment data: " + e.getMessage());
-        }
-        try (BufferedReader reader = new BufferedReader(new FileReader(SUBMISSIONS_FILE))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                Assignment submission = Assignment.fromString(line);
-                AssignmentManager.addSubmission(submission);
-            }
-            System.out.println("Submission data loaded from " + SUBMISSIONS_FILE);
-        } catch (FileNotFoundException e) {
-            System.out.println("No existing submission data file found (" + SUBMISSIONS_FILE + "). Starting fresh.");
-        } catch (IOException e) {
-            System.err.println("Error loading submission data: " + e.getMessage());
         }
-        System.out.println("--- Data Loading Complete ---");
+        new PlatformDataLoader(DataDomain.textFiles()).loadInto(registeredUsers);
+        snapshotSequence = readSnapshotSequence();
+        log.info("--- Data Loading Complete ---");
     }
 }
\ No newline at end of file
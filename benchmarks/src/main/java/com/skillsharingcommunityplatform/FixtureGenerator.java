@@ -0,0 +1,214 @@
+package com.skillsharingcommunityplatform;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// Builds synthetic platform data in the shapes the app produces, sized by a record count: that many users (one
+// in ten a provider) and results, half as many requests, and one session per twenty users, with quizzes,
+// lectures and assignments per skill and a rating for about a third of the enrollments. The same seed always
+// gives the same data.
+//
+// Usage: FixtureGenerator <records> [output-dir] [seed]
+// Writes the nine text files and a binary snapshot into output-dir.
+public class FixtureGenerator {
+    private static final String[] TOPICS = {"Java", "Python", "Guitar", "Photography", "Spanish", "Cooking", "Calculus",
+            "Drawing", "Public Speaking", "SQL", "Chess", "Yoga", "Piano", "Excel", "Writing", "Statistics"};
+    private static final String[] LEVELS = {"Basics", "Intermediate", "Advanced", "Workshop", "Clinic"};
+    private static final String[] FIRST_NAMES = {"Ayesha", "Bilal", "Chen", "Dana", "Elif", "Farhan", "Grace", "Hamza",
+            "Ines", "Jonas", "Kiran", "Lena", "Musa", "Noor", "Omar", "Priya"};
+    private static final String[] LAST_NAMES = {"Ahmed", "Brown", "Costa", "Diaz", "Evans", "Fischer", "Gupta", "Haddad",
+            "Ito", "Khan", "Lopez", "Malik", "Novak", "Okafor", "Park", "Rossi"};
+    private static final String[] DAYS = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+    private static final String[] HOURS = {"9am", "10am", "11am", "1pm", "2pm", "4pm", "6pm", "7pm"};
+    private static final int[] DURATIONS = {30, 45, 60, 90, 120};
+    private static final int QUESTIONS_PER_QUIZ = 10;
+    private static final int ENROLLMENTS_PER_SEEKER = 3;
+    // Ratings are spread over the 90 days before a fixed time, so the same seed gives the same timestamps.
+    private static final long RATINGS_END_MILLIS = 1_700_000_000_000L;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final Random random;
+
+    public FixtureGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: FixtureGenerator <records> [output-dir] [seed]");
+            return;
+        }
+        int records = Integer.parseInt(args[0]);
+        Path outputDir = Path.of(args.length > 1 ? args[1] : "fixtures-" + records);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        Files.createDirectories(outputDir);
+        silenceConsole();
+        Map<DataDomain, List<?>> data = new FixtureGenerator(seed).generate(records);
+        for (Map.Entry<DataDomain, List<?>> entry : data.entrySet()) {
+            Path file = outputDir.resolve(entry.getKey().getTextFileName());
+            PlatformTextFormat.writeFile(file.toString(), entry.getKey(), entry.getValue());
+            System.out.println("Wrote " + entry.getValue().size() + " records to " + file);
+        }
+        BinarySnapshot.write(outputDir.resolve("platform.snapshot"), 0, data);
+        System.out.println("Wrote " + outputDir.resolve("platform.snapshot"));
+    }
+
+    public Map<DataDomain, List<?>> generate(int records) {
+        int providerCount = Math.max(1, records / 10);
+        int seekerCount = Math.max(1, records - providerCount);
+        int sessionCount = Math.max(1, records / 20);
+
+        List<AbstractPerson> users = new ArrayList<>(providerCount + seekerCount);
+        List<SkillProvider> providers = new ArrayList<>(providerCount);
+        for (int i = 0; i < providerCount; i++) {
+            SkillProvider provider = new SkillProvider("P" + (2000 + i), personName(), password());
+            providers.add(provider);
+            users.add(provider);
+        }
+
+        List<Session> sessions = new ArrayList<>(sessionCount);
+        List<String> skillNames = new ArrayList<>(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            String skillName = skillName(i);
+            String skillCode = skillName.substring(0, 3).toUpperCase(Locale.ROOT) + i;
+            SkillProvider instructor = providers.get(random.nextInt(providers.size()));
+            // Room for the expected enrollments with some spread, so generated sessions are rarely full.
+            int capacity = Math.max(Session.DEFAULT_CAPACITY, 2 * ENROLLMENTS_PER_SEEKER * seekerCount / sessionCount);
+            sessions.add(new Session(skillName, skillCode, timing(), instructor.getName(), pick(DURATIONS), capacity));
+            skillNames.add(skillName);
+        }
+
+        List<SkillSeeker> seekers = new ArrayList<>(seekerCount);
+        for (int i = 0; i < seekerCount; i++) {
+            String id = "S" + (1000 + i);
+            List<String> enrolled = new ArrayList<>(ENROLLMENTS_PER_SEEKER);
+            for (int j = 0; j < ENROLLMENTS_PER_SEEKER; j++) {
+                Session session = sessions.get(random.nextInt(sessions.size()));
+                if (session.addEnrolledUser(id)) {
+                    enrolled.add(session.getSkillName());
+                    if (random.nextInt(3) == 0) {
+                        session.rate(id, 1 + random.nextInt(5), RATINGS_END_MILLIS - (long) (random.nextDouble() * 90 * DAY_MILLIS));
+                    }
+                }
+            }
+            SkillSeeker seeker = new SkillSeeker(id, personName(), password(), enrolled);
+            seekers.add(seeker);
+            users.add(seeker);
+        }
+
+        List<RequestedSession> requests = new ArrayList<>(records / 2);
+        for (int i = 0; i < records / 2; i++) {
+            SkillSeeker seeker = seekers.get(random.nextInt(seekers.size()));
+            // Requests mostly ask for skills that already have sessions, under the same few names.
+            String skillName = random.nextInt(4) == 0 ? skillName(random.nextInt(TOPICS.length * LEVELS.length)) : pick(skillNames);
+            RequestedSession request = new RequestedSession(skillName, seeker.getId(), timing(), pick(DURATIONS));
+            int outcome = random.nextInt(10);
+            if (outcome == 0) {
+                request.setStatus(RequestStatus.DENIED);
+            } else if (outcome < 3) {
+                request.setStatus(RequestStatus.FULFILLED);
+            }
+            requests.add(request);
+        }
+
+        List<Result> results = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            SkillSeeker seeker = seekers.get(random.nextInt(seekers.size()));
+            results.add(new Result(seeker.getId(), pick(skillNames), random.nextInt(101)));
+        }
+
+        List<SessionRating> ratings = new ArrayList<>();
+        for (Session session : sessions) {
+            ratings.addAll(session.getRatings());
+        }
+
+        List<Lecture> lectures = new ArrayList<>(sessionCount);
+        List<Quiz> quizzes = new ArrayList<>(sessionCount);
+        List<Assignment> assignments = new ArrayList<>(sessionCount);
+        List<Assignment> submissions = new ArrayList<>();
+        for (Session session : sessions) {
+            String skillName = session.getSkillName();
+            lectures.add(new Lecture(skillName, "videos/" + session.getSkillCode().toLowerCase(Locale.ROOT) + "/lecture1.mp4"));
+            quizzes.add(quiz(skillName, QUESTIONS_PER_QUIZ));
+            Assignment assignment = new Assignment(skillName, "Complete the " + skillName + " practice set and upload your work.");
+            assignments.add(assignment);
+            for (String seekerId : session.getEnrolledUserIds()) {
+                if (random.nextInt(2) == 0) {
+                    Assignment submission = new Assignment(skillName, assignment.getDescription());
+                    submission.setSubmittedByUserId(seekerId);
+                    submission.setFilePath("submissions/" + seekerId + "/" + session.getSkillCode() + ".pdf");
+                    submissions.add(submission);
+                }
+            }
+        }
+
+        Map<DataDomain, List<?>> data = new EnumMap<>(DataDomain.class);
+        data.put(DataDomain.USERS, users);
+        data.put(DataDomain.SESSIONS, sessions);
+        data.put(DataDomain.REQUESTS, requests);
+        data.put(DataDomain.RESULTS, results);
+        data.put(DataDomain.LECTURES, lectures);
+        data.put(DataDomain.QUIZZES, quizzes);
+        data.put(DataDomain.ASSIGNMENTS, assignments);
+        data.put(DataDomain.SUBMISSIONS, submissions);
+        data.put(DataDomain.RATINGS, ratings);
+        return data;
+    }
+
+    public Quiz quiz(String skillName, int questionCount) {
+        Quiz quiz = new Quiz(skillName);
+        for (int i = 0; i < questionCount; i++) {
+            List<String> options = new ArrayList<>(4);
+            for (int j = 0; j < 4; j++) {
+                options.add(skillName + " answer " + (char) ('A' + j) + " for question " + (i + 1));
+            }
+            quiz.addQuestion(new Question("Which statement about " + skillName + " topic " + (i + 1) + " is correct?",
+                    options, random.nextInt(options.size())));
+        }
+        return quiz;
+    }
+
+    // Skill names repeat topic and level with a cohort number, so larger data sets have more distinct names.
+    public static String skillName(int index) {
+        String name = TOPICS[index % TOPICS.length] + " " + LEVELS[(index / TOPICS.length) % LEVELS.length];
+        int cohort = index / (TOPICS.length * LEVELS.length);
+        return cohort == 0 ? name : name + " " + (cohort + 1);
+    }
+
+    public String timing() {
+        return pick(DAYS) + " " + pick(HOURS);
+    }
+
+    private String personName() {
+        return pick(FIRST_NAMES) + " " + pick(LAST_NAMES);
+    }
+
+    private String password() {
+        StringBuilder password = new StringBuilder(10);
+        for (int i = 0; i < 10; i++) {
+            password.append((char) ('a' + random.nextInt(26)));
+        }
+        return password.toString();
+    }
+
+    private <T> T pick(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private int pick(int[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    // The managers log their changes; benchmarks turn the platform log off so neither building messages nor
+    // writing them is measured.
+    public static void silenceConsole() {
+        PlatformLog.setLevel(PlatformLog.Level.OFF);
+    }
+}
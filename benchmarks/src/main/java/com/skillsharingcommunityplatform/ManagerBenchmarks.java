@@ -0,0 +1,205 @@
+package com.skillsharingcommunityplatform;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Hot paths of the in-memory managers over a populated platform. Each trial loads a generated data set of the
+// given size into the managers through a snapshot, the same way the app does at startup. Operations that grow
+// the managers run in fixed batches per iteration so the heap stays bounded at the larger sizes.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ManagerBenchmarks {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int records;
+
+    private String[] skillNames;
+    private String[] seekerIds;
+    private String[] userNames;
+    private RequestedSession[] pendingRequests;
+    private Session enrollmentTarget;
+    private String freshSkillName;
+    private String quizLine;
+    private Quiz quiz;
+    private CompiledQuiz compiledQuiz;
+    private List<byte[]> cohortAnswers;
+    private long drawSeed;
+    private int cursor;
+    private long fresh;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        FixtureGenerator.silenceConsole();
+        FixtureGenerator generator = new FixtureGenerator(42L);
+        Map<DataDomain, List<?>> data = generator.generate(records);
+        Path snapshotFile = Files.createTempFile("manager-benchmark", ".snapshot");
+        try {
+            BinarySnapshot.write(snapshotFile, 0, data);
+            new PlatformDataLoader(BinarySnapshot.open(snapshotFile)).loadInto(new ConcurrentHashMap<>());
+        } finally {
+            Files.deleteIfExists(snapshotFile);
+        }
+
+        List<Session> sessions = SessionManager.getAllSessions();
+        skillNames = new String[sessions.size()];
+        for (int i = 0; i < skillNames.length; i++) {
+            // Mixed case, as typed into the search box.
+            skillNames[i] = sessions.get(i).getSkillName().toUpperCase(Locale.ROOT);
+        }
+        List<?> users = data.get(DataDomain.USERS);
+        List<String> ids = new ArrayList<>(users.size());
+        userNames = new String[users.size()];
+        for (int i = 0; i < userNames.length; i++) {
+            AbstractPerson user = (AbstractPerson) users.get(i);
+            if (user instanceof SkillSeeker) ids.add(user.getId());
+            userNames[i] = user.getName().toLowerCase(Locale.ROOT);
+        }
+        seekerIds = ids.toArray(new String[0]);
+        List<RequestedSession> pending = new ArrayList<>();
+        for (RequestedSession request : RequestedSessionManager.getPendingRequests()) {
+            // Equal copies, as the UI and the journal replay hand them in.
+            pending.add(new RequestedSession(request.getSkillName(), request.getRequestedByUserId(), request.getTiming(), request.getDuration()));
+        }
+        pendingRequests = pending.toArray(new RequestedSession[0]);
+
+        quiz = generator.quiz("Java Basics", 10);
+        quizLine = quiz.toString();
+        compiledQuiz = CompiledQuiz.compile(quiz);
+        // One submission per seeker, each answer right about half the time.
+        Random random = new Random(42L);
+        cohortAnswers = new ArrayList<>(seekerIds.length);
+        for (int i = 0; i < seekerIds.length; i++) {
+            byte[] answers = compiledQuiz.newAnswers();
+            for (int q = 0; q < answers.length; q++) {
+                answers[q] = (byte) (random.nextBoolean() ? compiledQuiz.getCorrectAnswer(q) : random.nextInt(4));
+            }
+            cohortAnswers.add(answers);
+        }
+
+        // A large bank, where shuffling the whole pool per attempt would dominate.
+        Difficulty[] difficulties = Difficulty.values();
+        List<Question> bankQuestions = generator.quiz("Benchmark Bank", 5000).getQuestions();
+        for (int i = 0; i < bankQuestions.size(); i++) {
+            QuestionBankManager.addQuestion(new BankQuestion("Benchmark Bank", bankQuestions.get(i),
+                    List.of("topic" + i % 20), difficulties[i % difficulties.length]));
+        }
+    }
+
+    // Each iteration enrolls into a fresh session and requests a fresh skill, so batches don't build on each other.
+    @Setup(Level.Iteration)
+    public void resetGrowingTargets() {
+        enrollmentTarget = new Session("Benchmark Session", "BEN0", "Mon 10am", "Benchmark Provider", 60, Integer.MAX_VALUE);
+        freshSkillName = "Benchmark Skill " + fresh;
+    }
+
+    private int next(int bound) {
+        int index = cursor++ % bound;
+        if (cursor < 0) cursor = 0;
+        return index;
+    }
+
+    @Benchmark
+    public Optional<Session> getSessionBySkillName() {
+        return SessionManager.getSessionBySkillName(skillNames[next(skillNames.length)]);
+    }
+
+    @Benchmark
+    public List<AbstractPerson> findUserByName() {
+        return UserNameIndex.findByName(userNames[next(userNames.length)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5, batchSize = 10_000)
+    @Measurement(iterations = 10, batchSize = 10_000)
+    public boolean addEnrolledUser() {
+        return enrollmentTarget.addEnrolledUser("B" + fresh++);
+    }
+
+    @Benchmark
+    public boolean addEnrolledUserDuplicate() {
+        return enrollmentTarget.addEnrolledUser(seekerIds[0]);
+    }
+
+    // Upserts: the loaded data already holds a result for most (seeker, skill) pairs drawn here.
+    @Benchmark
+    public void addResult() {
+        int i = next(seekerIds.length);
+        ResultManager.addResult(new Result(seekerIds[i], skillNames[i % skillNames.length], i % 101));
+    }
+
+    // Codes for skills the loaded sessions already use, so allocation runs past the claimed numbers.
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5, batchSize = 10_000)
+    @Measurement(iterations = 10, batchSize = 10_000)
+    public String allocateSkillCode() {
+        return SkillCodeRegistry.allocate(skillNames[next(skillNames.length)]);
+    }
+
+    @Benchmark
+    public boolean addRequestDuplicate() {
+        return RequestedSessionManager.addRequest(pendingRequests[next(pendingRequests.length)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5, batchSize = 10_000)
+    @Measurement(iterations = 10, batchSize = 10_000)
+    public boolean addRequestFresh() {
+        return RequestedSessionManager.addRequest(new RequestedSession(freshSkillName, "B" + fresh++, "Mon 10am", 60));
+    }
+
+    @Benchmark
+    public Quiz quizFromString() {
+        return Quiz.fromString(quizLine);
+    }
+
+    @Benchmark
+    public String quizToString() {
+        return quiz.toString();
+    }
+
+    @Benchmark
+    public void quizRoundTrip(Blackhole blackhole) {
+        blackhole.consume(Quiz.fromString(quiz.toString()));
+    }
+
+    @Benchmark
+    public int gradeQuiz() {
+        return compiledQuiz.score(cohortAnswers.get(next(cohortAnswers.size())));
+    }
+
+    // What the provider analytics tab reads on each refresh; it should not grow with the number of results.
+    @Benchmark
+    public ScoreDistribution.Summary resultSummary() {
+        return SkillAnalytics.getResultSummary(skillNames[next(skillNames.length)]);
+    }
+
+    @Benchmark
+    public Optional<Quiz> generateBankQuiz() {
+        QuizDraw draw = new QuizDraw(drawSeed++, 5000, 10, null, null);
+        return QuestionBankManager.generate("Benchmark Bank", draw);
+    }
+
+    // Regrading every seeker's submission, as after an answer key fix.
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] gradeCohort() {
+        return QuizEngine.gradeAll(compiledQuiz, cohortAnswers, true);
+    }
+}
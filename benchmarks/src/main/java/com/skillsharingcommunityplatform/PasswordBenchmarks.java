@@ -0,0 +1,39 @@
+package com.skillsharingcommunityplatform;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of one login check and one new hash at candidate PBKDF2 iteration counts, for choosing
+// -Dskillsharing.passwordIterations on the machine the platform runs on. A login should stay well under a
+// second; each doubling of the count doubles both the cost and the work an attacker needs per guess.
+//
+//   java -jar benchmarks/target/benchmarks.jar PasswordBenchmarks -p iterations=100000,300000,600000
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordBenchmarks {
+
+    @Param({"50000", "100000", "210000", "400000", "600000"})
+    public int iterations;
+
+    private String storedHash;
+
+    @Setup(Level.Trial)
+    public void hashPassword() {
+        storedHash = PasswordHasher.hash("correct horse battery staple", iterations);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return PasswordHasher.verify("correct horse battery staple", storedHash);
+    }
+
+    @Benchmark
+    public String hash() {
+        return PasswordHasher.hash("correct horse battery staple", iterations);
+    }
+}
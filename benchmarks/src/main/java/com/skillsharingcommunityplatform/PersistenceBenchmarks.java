@@ -0,0 +1,101 @@
+package com.skillsharingcommunityplatform;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Full save and load round trips: a save is collectData() followed by a snapshot write, loadData() opens the
+// snapshot and fills the managers. The legacy text files are measured too, since they are still the fallback
+// and the export format. Autosave only encodes the domains that changed since the last save, so the incremental
+// case is measured with one busy domain re-encoded and the other sections reused. Each call is one whole pass,
+// so these run as single shots.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersistenceBenchmarks {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int records;
+
+    private Path directory;
+    private Path snapshotFile;
+    private Map<DataDomain, String> textFiles;
+    private Map<String, AbstractPerson> registeredUsers;
+    private Map<DataDomain, byte[]> encodedSections;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        FixtureGenerator.silenceConsole();
+        directory = Files.createTempDirectory("persistence-benchmark");
+        snapshotFile = directory.resolve("platform.snapshot");
+        textFiles = new EnumMap<>(DataDomain.class);
+        for (DataDomain domain : DataDomain.values()) {
+            textFiles.put(domain, directory.resolve(domain.getTextFileName()).toString());
+        }
+
+        Map<DataDomain, List<?>> data = new FixtureGenerator(42L).generate(records);
+        BinarySnapshot.write(snapshotFile, 0, data);
+        registeredUsers = new ConcurrentHashMap<>();
+        new PlatformDataLoader(BinarySnapshot.open(snapshotFile)).loadInto(registeredUsers);
+        encodedSections = BinarySnapshot.encodeSections(SkillSharingApp.collectData(registeredUsers));
+        for (Map.Entry<DataDomain, List<?>> entry : data.entrySet()) {
+            PlatformTextFormat.writeFile(textFiles.get(entry.getKey()), entry.getKey(), entry.getValue());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        for (String file : textFiles.values()) {
+            Files.deleteIfExists(Path.of(file));
+        }
+        Files.deleteIfExists(snapshotFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void saveSnapshot() throws IOException {
+        BinarySnapshot.write(snapshotFile, 0, SkillSharingApp.collectData(registeredUsers));
+    }
+
+    @Benchmark
+    public void saveSnapshotResultsChanged() throws IOException {
+        Map<DataDomain, byte[]> sections = new EnumMap<>(encodedSections);
+        sections.putAll(BinarySnapshot.encodeSections(SkillSharingApp.collectData(registeredUsers, EnumSet.of(DataDomain.RESULTS))));
+        BinarySnapshot.writeSections(snapshotFile, 0, sections);
+    }
+
+    @Benchmark
+    public Map<String, AbstractPerson> loadSnapshot() throws IOException {
+        Map<String, AbstractPerson> users = new ConcurrentHashMap<>();
+        new PlatformDataLoader(BinarySnapshot.open(snapshotFile)).loadInto(users);
+        return users;
+    }
+
+    @Benchmark
+    public void saveText() throws IOException {
+        for (Map.Entry<DataDomain, Collection<?>> entry : SkillSharingApp.collectData(registeredUsers).entrySet()) {
+            PlatformTextFormat.writeFile(textFiles.get(entry.getKey()), entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public Map<String, AbstractPerson> loadText() throws IOException {
+        Map<String, AbstractPerson> users = new ConcurrentHashMap<>();
+        new PlatformDataLoader(textFiles).loadInto(users);
+        return users;
+    }
+
+    @Benchmark
+    public Map<String, AbstractPerson> saveAndLoadSnapshot() throws IOException {
+        saveSnapshot();
+        return loadSnapshot();
+    }
+}